@@ -1,7 +1,7 @@
 package technology.tabula;
 
 import java.awt.geom.Point2D;
-import java.util.Collections;
+import java.util.List;
 
 @SuppressWarnings("serial")
 public class Cell extends RectangularTextContainer<TextChunk> {
@@ -21,13 +21,50 @@ public class Cell extends RectangularTextContainer<TextChunk> {
 	private boolean spanning;
 	private boolean placeholder;
 
+	// memoized results of getText(true) and getText(false); Strings are immutable, so
+	// racing readers at worst compute the same value twice
+	private String textWithLineReturns;
+	private String textWithoutLineReturns;
+
+	/**
+	 * Sets the chunks of this cell and puts them in reading order, once.
+	 * The text is memoized afterwards, so callers that modify the list returned by
+	 * {@link #getTextElements()} in place must call this method again.
+	 */
+	@Override
+	public void setTextElements(List<TextChunk> textElements) {
+		textElements.sort(Rectangle.ILL_DEFINED_ORDER);
+		super.setTextElements(textElements);
+		clearMemoizedText();
+	}
+
+	@Override
+	public RectangularTextContainer<TextChunk> merge(RectangularTextContainer<TextChunk> other) {
+		super.merge(other);
+		this.textElements.sort(Rectangle.ILL_DEFINED_ORDER);
+		clearMemoizedText();
+		return this;
+	}
+
 	@Override
 	public String getText(boolean useLineReturns) {
+		String text = useLineReturns ? this.textWithLineReturns : this.textWithoutLineReturns;
+		if (text == null) {
+			text = computeText(useLineReturns);
+			if (useLineReturns) {
+				this.textWithLineReturns = text;
+			} else {
+				this.textWithoutLineReturns = text;
+			}
+		}
+		return text;
+	}
+
+	private String computeText(boolean useLineReturns) {
 		if (this.textElements.size() == 0) {
 			return "";
 		}
 		StringBuilder sb = new StringBuilder();
-		this.textElements.sort(Rectangle.ILL_DEFINED_ORDER);
 		double curTop = this.textElements.get(0).getTop();
 		for (TextChunk tc : this.textElements) {
 			if (useLineReturns && tc.getTop() > curTop) {
@@ -39,6 +76,11 @@ public class Cell extends RectangularTextContainer<TextChunk> {
 		return sb.toString().trim();
 	}
 
+	private void clearMemoizedText() {
+		this.textWithLineReturns = null;
+		this.textWithoutLineReturns = null;
+	}
+
 	@Override
 	public String getText() {
 		return getText(true);
@@ -0,0 +1,197 @@
+package technology.tabula;
+
+/**
+ * Parses the text of a cell as an integer, a decimal, a percent or a date, reading its characters in place.
+ *
+ * Numbers may have a sign, a leading minus or one made of parentheses around them, as in (12.3), and commas between
+ * groups of three digits, as in 1,234.56. The value of the last text parsed is left in the fields of the parser, so
+ * parsing allocates nothing; which also means a parser can only be used by one thread at a time.
+ */
+final class CellValueParser {
+
+    // powers of ten that doubles hold exactly, so that dividing by one rounds correctly
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    // the largest integer up to which doubles hold every integer exactly
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    /** the value of an integer */
+    long longValue;
+    /** the value of an integer, a decimal or a percent */
+    double doubleValue;
+    /** the value of a date, in days since 1970-01-01 */
+    int epochDay;
+
+    /**
+     * @return the type of the text, with its value left in the parser, or null if it's blank
+     */
+    ColumnType parse(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start)))
+            start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+            end--;
+        if (start == end) {
+            return null;
+        }
+
+        if (parseDate(text, start, end)) {
+            return ColumnType.DATE;
+        }
+        return parseNumber(text, start, end);
+    }
+
+    private ColumnType parseNumber(CharSequence text, int start, int end) {
+        boolean percent = text.charAt(end - 1) == '%';
+        if (percent) {
+            end--;
+        }
+
+        boolean negative = false;
+        if (end - start >= 2 && text.charAt(start) == '(' && text.charAt(end - 1) == ')') {
+            negative = true;
+            start++;
+            end--;
+            // the percent sign may be in the parentheses too
+            if (!percent && end > start && text.charAt(end - 1) == '%') {
+                percent = true;
+                end--;
+            }
+        }
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '\u2212' || text.charAt(start) == '+')) {
+            if (negative) {
+                return ColumnType.TEXT;
+            }
+            negative = text.charAt(start) != '+';
+            start++;
+        }
+
+        // integers with leading zeros are more likely codes than numbers
+        if (end - start >= 2 && text.charAt(start) == '0' && text.charAt(start + 1) >= '0' && text.charAt(start + 1) <= '9') {
+            return ColumnType.TEXT;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean overflow = false;
+        boolean decimal = false;
+        // digits in the current group of the integer part, or -1 before the first comma
+        int groupDigits = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (decimal) {
+                    scale++;
+                } else if (groupDigits >= 0 && ++groupDigits > 3) {
+                    return ColumnType.TEXT;
+                }
+                if (significantDigits > 0 || c != '0') {
+                    significantDigits++;
+                }
+                if (significantDigits > 18) {
+                    overflow = true;
+                } else {
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+            } else if (c == ',' && !decimal && digits > 0 && (groupDigits < 0 ? digits <= 3 : groupDigits == 3)) {
+                groupDigits = 0;
+            } else if (c == '.' && !decimal && (groupDigits < 0 || groupDigits == 3)) {
+                decimal = true;
+            } else {
+                return ColumnType.TEXT;
+            }
+        }
+        if (digits == 0 || (groupDigits >= 0 && !decimal && groupDigits != 3)) {
+            return ColumnType.TEXT;
+        }
+
+        if (!overflow && mantissa < MAX_EXACT_DOUBLE_INTEGER && scale < POWERS_OF_TEN.length) {
+            doubleValue = mantissa / POWERS_OF_TEN[scale];
+        } else {
+            // too many digits to be sure of rounding the value right by hand
+            doubleValue = parseDoubleSlowly(text, start, end);
+        }
+        if (negative) {
+            doubleValue = -doubleValue;
+        }
+
+        if (percent) {
+            return ColumnType.PERCENT;
+        }
+        if (decimal || overflow) {
+            return ColumnType.DECIMAL;
+        }
+        longValue = negative ? -mantissa : mantissa;
+        return ColumnType.INTEGER;
+    }
+
+    private static double parseDoubleSlowly(CharSequence text, int start, int end) {
+        StringBuilder digits = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != ',') {
+                digits.append(text.charAt(i));
+            }
+        }
+        return Double.parseDouble(digits.toString());
+    }
+
+    private boolean parseDate(CharSequence text, int start, int end) {
+        if (end - start != 10 || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return false;
+        }
+        int year = parseDigits(text, start, start + 4);
+        int month = parseDigits(text, start + 5, start + 7);
+        int day = parseDigits(text, start + 8, start + 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return false;
+        }
+        epochDay = epochDay(year, month, day);
+        return true;
+    }
+
+    /**
+     * @return the value of the digits, or -1 if they aren't all digits
+     */
+    private static int parseDigits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // the days since 1970-01-01 of a date of the proleptic Gregorian calendar, as java.time counts them
+    private static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+}
@@ -0,0 +1,16 @@
+package technology.tabula;
+
+/**
+ * What the cells of a table column hold, as {@link TypedTable} infers it from their text.
+ *
+ * Integers fit in a long. Decimals are any other number, including integers that don't fit in a long. Percents are
+ * numbers followed by a percent sign, and keep the number as written: 12% is 12. Dates are ISO dates, yyyy-mm-dd.
+ * Anything else, or a column mixing those kinds, is text; though a column of integers and decimals is decimal.
+ */
+public enum ColumnType {
+    INTEGER, DECIMAL, PERCENT, DATE, TEXT;
+
+    public String getName() {
+        return name().toLowerCase();
+    }
+}
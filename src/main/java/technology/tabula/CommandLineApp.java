@@ -1,9 +1,11 @@
 package technology.tabula;
 
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,8 +18,12 @@ import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 
+import technology.tabula.detectors.CascadeDetectionAlgorithm;
+import technology.tabula.writers.ArrowWriter;
 import technology.tabula.writers.CSVWriter;
 import technology.tabula.writers.JSONWriter;
+import technology.tabula.writers.NDJSONWriter;
+import technology.tabula.writers.ParallelWriter;
 import technology.tabula.writers.TSVWriter;
 import technology.tabula.writers.Writer;
 
@@ -37,6 +43,11 @@ public class CommandLineApp {
     private List<Integer> pages;
     private OutputFormat outputFormat;
     private String password;
+    private boolean compactJson;
+    private boolean ndjsonRows;
+    private boolean typedColumns;
+    private boolean parallelOutput;
+    private boolean printGuessSummary;
     private TableExtractor tableExtractor;
 
     public CommandLineApp(Appendable defaultOutput, CommandLine line) throws ParseException {
@@ -44,6 +55,15 @@ public class CommandLineApp {
         this.pageAreas = whichAreas(line);
         this.pages = whichPages(line);
         this.tableExtractor = createExtractor(line);
+        this.outputFormat = CommandLineOptions.whichOutputFormat(line);
+        this.compactJson = line.hasOption("compact");
+        this.ndjsonRows = line.hasOption("rows");
+        this.typedColumns = line.hasOption("typed");
+        this.parallelOutput = line.hasOption("parallel-output");
+        this.printGuessSummary = line.hasOption("guess-summary");
+        if (printGuessSummary && !(tableExtractor.getDetectionAlgorithm() instanceof CascadeDetectionAlgorithm)) {
+            throw new ParseException("guess-summary only applies to the cascade guess method");
+        }
         new DebugOutput(true);
         new CommandLineOptions();
 
@@ -82,6 +102,9 @@ public class CommandLineApp {
         } else {
             handleSingleFileProcessing(line);
         }
+        if (printGuessSummary) {
+            System.err.println(((CascadeDetectionAlgorithm) tableExtractor.getDetectionAlgorithm()).getSummary());
+        }
     }
     
     private void handleBatchProcessing(CommandLine line) throws ParseException {
@@ -148,26 +171,45 @@ public class CommandLineApp {
     }
 
     public void extractFileInto(File pdfFile, File outputFile) {
-        try (BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(outputFile))) {
-            outputFile.createNewFile();
-            extractFile(pdfFile, bufferedWriter);
+        // written as bytes, so that the writers can encode their text, and the Arrow stream isn't encoded at all
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile), 64 * 1024)) {
+            extractFile(pdfFile, (writer, tables) -> writer.write(out, Charset.defaultCharset(), tables));
         } catch (IOException e) {
             ExceptionHandler.handleException("Cannot create or write to file: " + outputFile, e);
         }
     }
 
     private void extractFile(File pdfFile, Appendable outFile) {
+        extractFile(pdfFile, (writer, tables) -> writer.write(outFile, tables));
+    }
+
+    private void extractFile(File pdfFile, TableOutput output) {
         try (PDDocument pdfDocument = loadPdfDocument(pdfFile)){
-            processPdfDocument(pdfDocument, outFile);
+            processPdfDocument(pdfDocument, output);
         } catch (IOException e) {
             ExceptionHandler.handleException("Error processing file: " + pdfFile.getPath(), e);
         } 
     }
 
-    private void processPdfDocument(PDDocument pdfDocument, Appendable outFile) throws IOException {
+    private void processPdfDocument(PDDocument pdfDocument, TableOutput output) throws IOException {
         PageIterator pageIterator = getPageIterator(pdfDocument);
+        Writer writer = createWriter();
+        if (outputFormat == OutputFormat.NDJSON) {
+            // every line stands on its own, so write the tables of each page as soon as it's done
+            while (pageIterator.hasNext()) {
+                output.write(writer, processPage(pageIterator.next()));
+            }
+            return;
+        }
         List<Table> tables = processPages(pageIterator);
-        writeTables(tables, outFile);
+        output.write(writer, tables);
+    }
+
+    /**
+     * Where the tables go: the Appendable the app writes to, or the stream of an output file
+     */
+    private interface TableOutput {
+        void write(Writer writer, List<Table> tables) throws IOException;
     }
 
     private PDDocument loadPdfDocument(File pdfFile) throws IOException {
@@ -177,13 +219,16 @@ public class CommandLineApp {
     private List<Table> processPages(PageIterator pageIterator) {
         List<Table> tables = new ArrayList<>();
         while (pageIterator.hasNext()) {
-            Page page = pageIterator.next();
-            applyVerticalRulings(page);
-            tables.addAll(extractTablesFromPage(page));
+            tables.addAll(processPage(pageIterator.next()));
         }
         return tables;
     }
 
+    private List<Table> processPage(Page page) {
+        applyVerticalRulings(page);
+        return extractTablesFromPage(page);
+    }
+
     private void applyVerticalRulings(Page page) {
         if (tableExtractor.verticalRulingPositions != null) {
             for (Float verticalRulingPosition : tableExtractor.verticalRulingPositions) {
@@ -194,7 +239,7 @@ public class CommandLineApp {
 
     private List<Table> extractTablesFromPage(Page page) {
         if (pageAreas != null) {
-            return pageAreas.stream().map(areaPair -> adjustAreaBasedOnMode(areaPair, page)).flatMap(area -> tableExtractor.extractTables(page.getArea(area)).stream()).collect(Collectors.toList());
+            return tableExtractor.extractTables(page, pageAreas.stream().map(areaPair -> adjustAreaBasedOnMode(areaPair, page)).collect(Collectors.toList()));
         } else {
             return tableExtractor.extractTables(page);
         }    
@@ -265,8 +310,17 @@ public class CommandLineApp {
     private TableExtractor createExtractor(CommandLine line) throws ParseException {
         TableExtractor extractor = new TableExtractor();
         extractor.setGuess(line.hasOption('g'));
+        extractor.setGuessMethod(CommandLineOptions.whichGuessMethod(line));
+        try {
+            extractor.setGuessResolution(CommandLineOptions.whichGuessResolution(line),
+                    CommandLineOptions.whichGuessCoarseResolution(line));
+            extractor.setGuessMinimumTextCoverage(CommandLineOptions.whichGuessTextCoverage(line));
+        } catch (IllegalArgumentException e) {
+            throw new ParseException(e.getMessage());
+        }
         extractor.setMethod(CommandLineApp.whichExtractionMethod(line));
         extractor.setUseLineReturns(line.hasOption('u'));
+        extractor.setParallelAreas(line.hasOption("parallel-areas"));
 
         if (line.hasOption('c')) {
             String optionString = line.getOptionValue('c');
@@ -298,20 +352,26 @@ public class CommandLineApp {
         formatter.printHelp("tabula", BANNER, CommandLineOptions.buildOptions(), "", true);
     }
 
-    private void writeTables(List<Table> tables, Appendable out) throws IOException {
+    private Writer createWriter() {
         Writer writer = null;
         switch (outputFormat) {
             case CSV:
                 writer = new CSVWriter();
                 break;
             case JSON:
-                writer = new JSONWriter();
+                writer = new JSONWriter(compactJson, typedColumns);
                 break;
             case TSV:
                 writer = new TSVWriter();
                 break;
+            case NDJSON:
+                writer = new NDJSONWriter(compactJson, ndjsonRows, typedColumns);
+                break;
+            case ARROW:
+                writer = new ArrowWriter(typedColumns);
+                break;
         }
-        writer.write(out, tables);
+        return parallelOutput ? new ParallelWriter(writer) : writer;
     }
 
     private String getOutputFilename(File pdfFile) {
@@ -326,6 +386,12 @@ public class CommandLineApp {
             case TSV:
                 extension = ".tsv";
                 break;
+            case NDJSON:
+                extension = ".ndjson";
+                break;
+            case ARROW:
+                extension = ".arrows";
+                break;
         }
         return pdfFile.getPath().replaceFirst("(\\.pdf|)$", extension);
     }
@@ -5,6 +5,11 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import technology.tabula.detectors.CascadeDetectionAlgorithm;
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+
+import java.util.Arrays;
+
 public class CommandLineOptions {
     public static Options buildOptions() {
         Options o = new Options();
@@ -12,12 +17,51 @@ public class CommandLineOptions {
         o.addOption("v", "version", false, "Print version and exit.");
         o.addOption("h", "help", false, "Print this help text.");
         o.addOption("g", "guess", false, "Guess the portion of the page to analyze per page.");
+        o.addOption(Option.builder()
+                .longOpt("guess-method")
+                .desc("How to guess the portion of the page to analyze with -g/--guess: ("
+                        + Utils.join(",", GuessMethod.methodNames()) + "). Default: raster")
+                .hasArg()
+                .argName("METHOD")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("guess-resolution")
+                .desc("Resolution, in DPI, pages are rendered at to guess the portion to analyze with the raster and cascade guess methods. Higher finds thinner lines, but is slower. Default: "
+                        + NurminenDetectionAlgorithm.DEFAULT_RESOLUTION)
+                .hasArg()
+                .argName("DPI")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("guess-coarse-resolution")
+                .desc("Resolution, lower than --guess-resolution, pages are first rendered at to find where to look for lines, so only those regions are rendered at --guess-resolution. Faster on large pages, but may miss faint lines. Default: 0, render the whole page at --guess-resolution")
+                .hasArg()
+                .argName("DPI")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("guess-text-coverage")
+                .desc("Share of a page's text, between 0 and 1, that the tables the cascade guess method finds without rendering the page must contain for it not to render the page. Default: "
+                        + CascadeDetectionAlgorithm.DEFAULT_MINIMUM_TEXT_COVERAGE)
+                .hasArg()
+                .argName("SHARE")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("guess-summary")
+                .desc("Print how many pages each stage of the cascade guess method finished to stderr once all files are extracted.")
+                .build());
         o.addOption("r", "spreadsheet", false, "[Deprecated in favor of -l/--lattice] Force PDF to be extracted using spreadsheet-style extraction (if there are ruling lines separating each cell, as in a PDF of an Excel spreadsheet)");
         o.addOption("n", "no-spreadsheet", false, "[Deprecated in favor of -t/--stream] Force PDF not to be extracted using spreadsheet-style extraction (if there are no ruling lines separating each cell)");
         o.addOption("l", "lattice", false, "Force PDF to be extracted using lattice-mode extraction (if there are ruling lines separating each cell, as in a PDF of an Excel spreadsheet)");
         o.addOption("t", "stream", false, "Force PDF to be extracted using stream-mode extraction (if there are no ruling lines separating each cell)");
         o.addOption("i", "silent", false, "Suppress all stderr output.");
         o.addOption("u", "use-line-returns", false, "Use embedded line returns in cells. (Only in spreadsheet mode.)");
+        o.addOption(Option.builder()
+                .longOpt("parallel-areas")
+                .desc("Extract the areas of each page concurrently. Tables are output in the same order.")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("parallel-output")
+                .desc("Serialize tables concurrently. The output is the same.")
+                .build());
         // o.addOption("d", "debug", false, "Print detected table areas instead of processing.");
         o.addOption(Option.builder("b")
                 .longOpt("batch")
@@ -37,6 +81,18 @@ public class CommandLineOptions {
                 .hasArg()
                 .argName("FORMAT")
                 .build());
+        o.addOption(Option.builder()
+                .longOpt("compact")
+                .desc("Leave the position and size of each cell out of JSON and NDJSON output.")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("rows")
+                .desc("Write a line for each row instead of for each table in NDJSON output.")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("typed")
+                .desc("Infer the type of each column (integer, decimal, percent, date or text) and write numbers as numbers in ARROW, JSON and NDJSON output.")
+                .build());
         o.addOption(Option.builder("s")
                 .longOpt("password")
                 .desc("Password to decrypt document. Default is empty")
@@ -70,6 +126,58 @@ public class CommandLineOptions {
         return o;
     }
     
+    public static GuessMethod whichGuessMethod(CommandLine line) throws ParseException {
+        if (!line.hasOption("guess-method")) {
+            return GuessMethod.RASTER;
+        }
+
+        String method = line.getOptionValue("guess-method");
+        if (!Arrays.asList(GuessMethod.methodNames()).contains(method.toLowerCase())) {
+            throw new ParseException(String.format(
+                    "guess method %s is illegal. Available methods: %s",
+                    method,
+                    Utils.join(",", GuessMethod.methodNames())));
+        }
+        return GuessMethod.valueOf(method.toUpperCase());
+    }
+
+    public static int whichGuessResolution(CommandLine line) throws ParseException {
+        return parseResolution(line, "guess-resolution", NurminenDetectionAlgorithm.DEFAULT_RESOLUTION);
+    }
+
+    public static int whichGuessCoarseResolution(CommandLine line) throws ParseException {
+        return parseResolution(line, "guess-coarse-resolution", 0);
+    }
+
+    public static float whichGuessTextCoverage(CommandLine line) throws ParseException {
+        if (!line.hasOption("guess-text-coverage")) {
+            return CascadeDetectionAlgorithm.DEFAULT_MINIMUM_TEXT_COVERAGE;
+        }
+
+        try {
+            return Float.parseFloat(line.getOptionValue("guess-text-coverage"));
+        } catch (NumberFormatException e) {
+            throw new ParseException(String.format(
+                    "guess-text-coverage %s is illegal, it must be a number between 0 and 1",
+                    line.getOptionValue("guess-text-coverage")));
+        }
+    }
+
+    private static int parseResolution(CommandLine line, String option, int defaultResolution) throws ParseException {
+        if (!line.hasOption(option)) {
+            return defaultResolution;
+        }
+
+        try {
+            return Integer.parseInt(line.getOptionValue(option));
+        } catch (NumberFormatException e) {
+            throw new ParseException(String.format(
+                    "%s %s is illegal, it must be a whole number of DPI",
+                    option,
+                    line.getOptionValue(option)));
+        }
+    }
+
     public static OutputFormat whichOutputFormat(CommandLine line) throws ParseException {
         if (!line.hasOption('f')) {
             return OutputFormat.CSV;
@@ -0,0 +1,42 @@
+package technology.tabula;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Memoizes font heights across the pages of one document.
+ *
+ * PDFBox only remembers font heights for the page being stripped, but a document usually
+ * uses a handful of fonts on all of its pages. Fonts are keyed by their dictionary, which
+ * PDFBox resolves to the same object on every page that refers to it. Glyph widths and the
+ * width of a space need no cache here: PDFont memoizes them itself, and the document's
+ * resource cache hands out the same PDFont on every page.
+ *
+ * Each {@link ObjectExtractor} has its own cache. Lookups are synchronized, which costs
+ * next to nothing, as the pages of a document are stripped one at a time: PDFBox can't
+ * read a document from several threads at once.
+ */
+class FontMetricsCache {
+
+    interface FontHeightComputation {
+        float computeFontHeight(PDFont font) throws IOException;
+    }
+
+    private final Map<COSDictionary, Float> fontHeights = Collections.synchronizedMap(new WeakHashMap<>());
+
+    float getFontHeight(PDFont font, FontHeightComputation computation) throws IOException {
+        COSDictionary key = font.getCOSObject();
+        Float height = fontHeights.get(key);
+        if (height == null) {
+            height = computation.computeFontHeight(font);
+            fontHeights.put(key, height);
+        }
+        return height;
+    }
+
+}
@@ -0,0 +1,18 @@
+package technology.tabula;
+
+/**
+ * How table areas are guessed: from an image of the page, from the ruling lines drawn in the PDF, or by trying the
+ * cheaper ways first and only rendering the page when they don't find convincing tables.
+ */
+public enum GuessMethod {
+    RASTER, VECTOR, CASCADE;
+
+    public static String[] methodNames() {
+        GuessMethod[] values = GuessMethod.values();
+        String[] names = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name().toLowerCase();
+        }
+        return names;
+    }
+}
@@ -8,6 +8,7 @@ import org.apache.pdfbox.pdmodel.PDPage;
 public class ObjectExtractor implements java.io.Closeable {
 
     private final PDDocument pdfDocument;
+    private final FontMetricsCache fontMetrics = new FontMetricsCache();
 
     public ObjectExtractor(PDDocument pdfDocument) {
         this.pdfDocument = pdfDocument;
@@ -23,7 +24,7 @@ public class ObjectExtractor implements java.io.Closeable {
         ObjectExtractorStreamEngine streamEngine = new ObjectExtractorStreamEngine(page);
         streamEngine.processPage(page);
 
-        TextStripper textStripper = new TextStripper(pdfDocument, pageNumber);
+        TextStripper textStripper = new TextStripper(pdfDocument, pageNumber, fontMetrics);
         textStripper.process();
 
         Utils.sort(textStripper.getTextElements(), Rectangle.ILL_DEFINED_ORDER);
@@ -49,6 +50,7 @@ public class ObjectExtractor implements java.io.Closeable {
                 .withMinCharWidth(textStripper.getMinCharWidth())
                 .withMinCharHeight(textStripper.getMinCharHeight())
                 .withIndex(textStripper.getSpatialIndex())
+                .withRejectedGlyphCounts(textStripper.getRejectedGlyphCounts())
                 .build();
     }
 
@@ -1,7 +1,7 @@
 package technology.tabula;
 
 public enum OutputFormat {
-    CSV, TSV, JSON;
+    CSV, TSV, JSON, NDJSON, ARROW;
 
     public static String[] formatNames() {
         OutputFormat[] values = OutputFormat.values();
@@ -2,9 +2,13 @@ package technology.tabula;
 
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -12,6 +16,12 @@ import org.apache.pdfbox.pdmodel.PDPage;
 import static java.lang.Float.compare;
 import static java.util.Collections.min;
 
+/**
+ * A page, or an area of one, with its text and ruling lines.
+ *
+ * Several threads can extract from the same page at once: whatever it works out lazily is worked out under the
+ * page's lock.
+ */
 @SuppressWarnings("serial")
 // TODO: this class should probably be called "PageArea" or something like that
 public class Page extends Rectangle {
@@ -34,6 +44,14 @@ public class Page extends Rectangle {
 
     private RectangleSpatialIndex<TextElement> spatialIndex;
 
+    private Map<TextStripper.GlyphRejection, Integer> rejectedGlyphCounts = Collections.emptyMap();
+
+    // the page this is an area of, if it is one: its text and rulings are taken from there when they're first needed
+    private Page parent;
+
+    // what the algorithms worked out from the page's text and rulings, by name and parameters
+    private final Map<List<Object>, Object> artifacts = new HashMap<>();
+
     private static final float DEFAULT_MIN_CHAR_LENGTH = 7;
 
     private Page(
@@ -112,30 +130,90 @@ public class Page extends Rectangle {
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    /**
+     * Returns a view of an area of this page. It shares the page's text index and cleaned rulings, and only takes
+     * out its own text and crops its own rulings when they're first asked for, so it costs about as much as what's
+     * in the area.
+     */
     public Page getArea(Rectangle area) {
-        List<TextElement> areaTextElements = getText(area);
-
-        float minimumCharWidth = getMinimumCharWidthFrom(areaTextElements);
-        float minimumCharHeight = getMinimumCharHeightFrom(areaTextElements);
-
         final Page page = Page.Builder.newInstance()
                 .withPageDims(PageDims.of(area.getTop(), area.getLeft(), (float) area.getWidth(), (float) area.getHeight()))
                 .withRotation(rotation)
                 .withNumber(number)
                 .withPdPage(pdPage)
                 .withPdDocument(pdDoc)
-                .withTextElements(areaTextElements)
-                .withRulings(Ruling.cropRulingsToArea(getRulings(), area))
-                .withMinCharWidth(minimumCharWidth)
-                .withMinCharHeight(minimumCharHeight)
                 .withIndex(spatialIndex)
                 .build();
-
-        addBorderRulingsTo(page);
+        page.parent = this;
 
         return page;
     }
 
+    /**
+     * Takes this area's text out of the page it's an area of, if that hasn't been done yet
+     */
+    private synchronized void loadAreaText() {
+        if (textElements != null || parent == null) {
+            return;
+        }
+        List<TextElement> areaTextElements = parent.getText(this);
+        minCharWidth = getMinimumCharWidthFrom(areaTextElements);
+        minCharHeight = getMinimumCharHeightFrom(areaTextElements);
+        textElements = areaTextElements;
+    }
+
+    /**
+     * Crops the rulings of the page this is an area of to the area and puts a border around them, if that hasn't been
+     * done yet
+     */
+    private synchronized void loadAreaRulings() {
+        if (rulings != null || parent == null) {
+            return;
+        }
+        // the rulings get snapped to the area's smallest characters
+        loadAreaText();
+
+        List<Ruling> areaRulings = parent.cropRulingsTo(this);
+        addBorderRulingsTo(areaRulings);
+        rulings = areaRulings;
+    }
+
+    /**
+     * Same as {@link Ruling#cropRulingsToArea(List, java.awt.geom.Rectangle2D)} with the cleaned rulings, but the
+     * collapsed rulings are sorted by position, so only the ones whose position is in the area are looked at
+     */
+    private List<Ruling> cropRulingsTo(Rectangle area) {
+        List<Ruling> croppedRulings = new ArrayList<>();
+        cropSortedRulingsTo(getVerticalRulings(), area.getLeft(), area.getRight(), area, croppedRulings);
+        cropSortedRulingsTo(getHorizontalRulings(), area.getTop(), area.getBottom(), area, croppedRulings);
+        return croppedRulings;
+    }
+
+    private static void cropSortedRulingsTo(List<Ruling> sortedRulings, float fromPosition, float toPosition,
+                                            Rectangle area, List<Ruling> croppedRulings) {
+        // the first ruling at or after the area, with a point of slack
+        int low = 0;
+        int high = sortedRulings.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedRulings.get(middle).getPosition() < fromPosition - 1) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        for (int i = low; i < sortedRulings.size(); i++) {
+            Ruling ruling = sortedRulings.get(i);
+            if (ruling.getPosition() > toPosition + 1) {
+                break;
+            }
+            if (ruling.intersects(area)) {
+                croppedRulings.add(ruling.intersect(area));
+            }
+        }
+    }
+
     private float getMinimumCharWidthFrom(List<TextElement> areaTextElements) {
         if (!areaTextElements.isEmpty()) {
             return min(areaTextElements, (te1, te2) -> compare(te1.width, te2.width)).width;
@@ -150,15 +228,15 @@ public class Page extends Rectangle {
         return DEFAULT_MIN_CHAR_LENGTH;
     }
 
-    private void addBorderRulingsTo(Page page) {
-        Point2D.Double leftTop = new Point2D.Double(page.getLeft(), page.getTop()),
-                rightTop = new Point2D.Double(page.getRight(), page.getTop()),
-                rightBottom = new Point2D.Double(page.getRight(), page.getBottom()),
-                leftBottom = new Point2D.Double(page.getLeft(), page.getBottom());
-        page.addRuling(new Ruling(leftTop, rightTop));
-        page.addRuling(new Ruling(rightTop, rightBottom));
-        page.addRuling(new Ruling(rightBottom, leftBottom));
-        page.addRuling(new Ruling(leftBottom, leftTop));
+    private void addBorderRulingsTo(List<Ruling> areaRulings) {
+        Point2D.Double leftTop = new Point2D.Double(getLeft(), getTop()),
+                rightTop = new Point2D.Double(getRight(), getTop()),
+                rightBottom = new Point2D.Double(getRight(), getBottom()),
+                leftBottom = new Point2D.Double(getLeft(), getBottom());
+        areaRulings.add(new Ruling(leftTop, rightTop));
+        areaRulings.add(new Ruling(rightTop, rightBottom));
+        areaRulings.add(new Ruling(rightBottom, leftBottom));
+        areaRulings.add(new Ruling(leftBottom, leftTop));
     }
 
     public Page getArea(float top, float left, float bottom, float right) {
@@ -179,7 +257,8 @@ public class Page extends Rectangle {
      * @deprecated with no replacement
      */
     @Deprecated
-    public float getMinCharWidth() {
+    public synchronized float getMinCharWidth() {
+        loadAreaText();
         return minCharWidth;
     }
 
@@ -187,12 +266,14 @@ public class Page extends Rectangle {
      * @deprecated with no replacement
      */
     @Deprecated
-    public float getMinCharHeight() {
+    public synchronized float getMinCharHeight() {
+        loadAreaText();
         return minCharHeight;
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
-    public List<TextElement> getText() {
+    public synchronized List<TextElement> getText() {
+        loadAreaText();
         return textElements;
     }
 
@@ -213,7 +294,7 @@ public class Page extends Rectangle {
      */
     @Deprecated
     public List<TextElement> getTexts() {
-        return textElements;
+        return getText();
     }
 
     /**
@@ -233,15 +314,74 @@ public class Page extends Rectangle {
      */
     @Deprecated
     public boolean hasText() {
-        return textElements.size() > 0;
+        return getText().size() > 0;
+    }
+
+    /**
+     * The page's text merged into words, see {@link TextElement#mergeWords(List)}
+     */
+    public List<TextChunk> getTextChunks() {
+        return getTextChunks(Collections.<Ruling>emptyList());
+    }
+
+    /**
+     * The page's text merged into words that don't cross the given vertical rulings, see
+     * {@link TextElement#mergeWords(List, List)}
+     */
+    public List<TextChunk> getTextChunks(List<Ruling> verticalRulings) {
+        return getArtifact("textChunks", Ruling.coordinatesOf(verticalRulings),
+                () -> TextElement.mergeWords(getText(), verticalRulings));
+    }
+
+    /**
+     * The words of {@link #getTextChunks()} grouped into lines, see {@link TextChunk#groupByLines(List)}
+     */
+    public List<Line> getTextLines() {
+        return getTextLines(Collections.<Ruling>emptyList());
+    }
+
+    /**
+     * The words of {@link #getTextChunks(List)} grouped into lines, see {@link TextChunk#groupByLines(List)}
+     */
+    public List<Line> getTextLines(List<Ruling> verticalRulings) {
+        return getArtifact("textLines", Ruling.coordinatesOf(verticalRulings),
+                // groupByLines takes the first word out of the list it's given
+                () -> TextChunk.groupByLines(new ArrayList<>(getTextChunks(verticalRulings))));
+    }
+
+    /**
+     * Returns something the algorithms work out from this page, computing it only the first time it's asked for
+     * with the same name and parameters, so that detection and extraction don't work the same things out over and
+     * over.
+     *
+     * Artifacts are shared by everyone who asks for them, so they mustn't be modified. They're all dropped when a
+     * ruling is added to the page. The computation runs with the page locked, so threads asking for the same
+     * artifact at the same time wait for it instead of working it out again.
+     *
+     * @param name        what the artifact is
+     * @param parameters  everything besides the page the artifact depends on, compared with equals and hashCode, so
+     *                    rulings, which don't hash by value, are given as their {@link Ruling#coordinatesOf(List)}
+     * @param computation works the artifact out
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getArtifact(String name, Object parameters, Supplier<T> computation) {
+        List<Object> key = Arrays.asList(name, parameters);
+        // not computeIfAbsent: computations can ask for other artifacts
+        T artifact = (T) artifacts.get(key);
+        if (artifact == null) {
+            artifact = computation.get();
+            artifacts.put(key, artifact);
+        }
+        return artifact;
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
-    public List<Ruling> getRulings() {
+    public synchronized List<Ruling> getRulings() {
         if (cleanRulings != null) {
             return cleanRulings;
         }
 
+        loadAreaRulings();
         if (rulings == null || rulings.isEmpty()) {
             verticalRulingLines = new ArrayList<>();
             horizontalRulingLines = new ArrayList<>();
@@ -281,7 +421,7 @@ public class Page extends Rectangle {
         return Ruling.collapseOrientedRulings(horizontalRulings);
     }
 
-    public List<Ruling> getVerticalRulings() {
+    public synchronized List<Ruling> getVerticalRulings() {
         if (verticalRulingLines != null) {
             return verticalRulingLines;
         }
@@ -289,7 +429,7 @@ public class Page extends Rectangle {
         return verticalRulingLines;
     }
 
-    public List<Ruling> getHorizontalRulings() {
+    public synchronized List<Ruling> getHorizontalRulings() {
         if (horizontalRulingLines != null) {
             return horizontalRulingLines;
         }
@@ -297,18 +437,21 @@ public class Page extends Rectangle {
         return horizontalRulingLines;
     }
 
-    public void addRuling(Ruling ruling) {
+    public synchronized void addRuling(Ruling ruling) {
         if (ruling.oblique()) {
             throw new UnsupportedOperationException("Can't add an oblique ruling.");
         }
+        loadAreaRulings();
         rulings.add(ruling);
         // Clear caches:
         verticalRulingLines = null;
         horizontalRulingLines = null;
         cleanRulings = null;
+        artifacts.clear();
     }
 
-    public List<Ruling> getUnprocessedRulings() {
+    public synchronized List<Ruling> getUnprocessedRulings() {
+        loadAreaRulings();
         return rulings;
     }
 
@@ -331,6 +474,17 @@ public class Page extends Rectangle {
         return spatialIndex;
     }
 
+    /**
+     * Returns how many of the glyphs on the page were left out of its text for the given reason. An area of a page
+     * returns the counts of the whole page.
+     */
+    public int getRejectedGlyphCount(TextStripper.GlyphRejection reason) {
+        if (parent != null) {
+            return parent.getRejectedGlyphCount(reason);
+        }
+        return rejectedGlyphCounts.getOrDefault(reason, 0);
+    }
+
     public static class Builder {
         private PageDims pageDims;
         private int rotation;
@@ -342,6 +496,7 @@ public class Page extends Rectangle {
         private float minCharWidth;
         private float minCharHeight;
         private RectangleSpatialIndex<TextElement> index;
+        private Map<TextStripper.GlyphRejection, Integer> rejectedGlyphCounts = Collections.emptyMap();
 
         private Builder() {}
 
@@ -409,8 +564,16 @@ public class Page extends Rectangle {
             return this;
         }
 
+        public Builder withRejectedGlyphCounts(Map<TextStripper.GlyphRejection, Integer> rejectedGlyphCounts) {
+            this.rejectedGlyphCounts = rejectedGlyphCounts;
+
+            return this;
+        }
+
         public Page build() {
-            return new Page(pageDims, rotation, number, pdPage, pdDocument, textElements, rulings, minCharWidth, minCharHeight, index);
+            Page page = new Page(pageDims, rotation, number, pdPage, pdDocument, textElements, rulings, minCharWidth, minCharHeight, index);
+            page.rejectedGlyphCounts = rejectedGlyphCounts;
+            return page;
         }
     }
 }
@@ -11,13 +11,25 @@ public class RectangleSpatialIndex<T extends Rectangle> {
 
     private final STRtree si = new STRtree();
     private final List<T> rectangles = new ArrayList<>();
+    // the tree is built on the first query, and can be queried from several threads at once after that
+    private volatile boolean built = false;
 
     public void add(T te) {
         rectangles.add(te);
         si.insert(new Envelope(te.getLeft(), te.getRight(), te.getBottom(), te.getTop()), te);
     }
     
+    private void build() {
+        if (!built) {
+            synchronized (si) {
+                si.build();
+                built = true;
+            }
+        }
+    }
+    
     public List<T> contains(Rectangle r) {
+        build();
         List<T> intersection = si.query(new Envelope(r.getLeft(), r.getRight(), r.getTop(), r.getBottom()));
         List<T> rv = new ArrayList<T>();
 
@@ -32,6 +44,7 @@ public class RectangleSpatialIndex<T extends Rectangle> {
     }
     
     public List<T> intersects(Rectangle r) {
+      build();
       return si.query(new Envelope(r.getLeft(), r.getRight(), r.getTop(), r.getBottom()));
     }
     
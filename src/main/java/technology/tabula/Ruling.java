@@ -289,6 +289,21 @@ public class Ruling extends Line2D.Float {
         return rv;
     }
     
+    /**
+     * The end points of the rulings, x1, y1, x2 and y2 of each in turn. Unlike the rulings themselves, the copy
+     * hashes by value and doesn't change when they're moved, so it's what to key things worked out from them on.
+     */
+    public static List<java.lang.Float> coordinatesOf(List<Ruling> rulings) {
+        List<java.lang.Float> coordinates = new ArrayList<>(rulings.size() * 4);
+        for (Ruling r : rulings) {
+            coordinates.add(r.x1);
+            coordinates.add(r.y1);
+            coordinates.add(r.x2);
+            coordinates.add(r.y2);
+        }
+        return Collections.unmodifiableList(coordinates);
+    }
+    
     public static List<Ruling> cropRulingsToArea(List<Ruling> rulings, Rectangle2D area) {
         ArrayList<Ruling> rv = new ArrayList<>();
         for (Ruling r : rulings) {
@@ -1,28 +1,47 @@
 package technology.tabula;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import technology.tabula.extractors.BasicExtractionAlgorithm;
 import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+import technology.tabula.extractors.TabularityClassifier;
+import technology.tabula.detectors.CascadeDetectionAlgorithm;
 import technology.tabula.detectors.DetectionAlgorithm;
 import technology.tabula.detectors.NurminenDetectionAlgorithm;
-
+import technology.tabula.detectors.VectorDetectionAlgorithm;
+
+/**
+ * Extracts the tables of pages the way it's been set up to.
+ *
+ * Once it's set up, one extractor can extract from several threads at once, even from the same page: the
+ * algorithms it uses keep no state between pages, and it only reads its settings, each of which is replaced as a
+ * whole when it's set.
+ */
 public class TableExtractor {
-    private boolean guess = false;
-    private boolean useLineReturns = false;
-    private BasicExtractionAlgorithm basicExtractor = new BasicExtractionAlgorithm();
-    private SpreadsheetExtractionAlgorithm spreadsheetExtractor = new SpreadsheetExtractionAlgorithm();
-
-    private boolean verticalRulingPositionsRelative = false;
-    List<Float> verticalRulingPositions = null;
-
-    private ExtractionMethod method = ExtractionMethod.BASIC;
+    private volatile boolean guess = false;
+    private volatile GuessMethod guessMethod = GuessMethod.RASTER;
+    private volatile int guessResolution = NurminenDetectionAlgorithm.DEFAULT_RESOLUTION;
+    private volatile int guessCoarseResolution = 0;
+    private volatile float guessMinimumTextCoverage = CascadeDetectionAlgorithm.DEFAULT_MINIMUM_TEXT_COVERAGE;
+    private volatile DetectionAlgorithm detectionAlgorithm = createDetectionAlgorithm(guessMethod, guessResolution,
+            guessCoarseResolution, guessMinimumTextCoverage);
+    private volatile boolean useLineReturns = false;
+    private final BasicExtractionAlgorithm basicExtractor = new BasicExtractionAlgorithm();
+    private volatile SpreadsheetExtractionAlgorithm spreadsheetExtractor = new SpreadsheetExtractionAlgorithm();
+    private final TabularityClassifier tabularityClassifier = new TabularityClassifier();
+
+    private volatile boolean verticalRulingPositionsRelative = false;
+    volatile List<Float> verticalRulingPositions = null;
+
+    private volatile ExtractionMethod method = ExtractionMethod.BASIC;
+    private volatile boolean parallelAreas = false;
 
     public TableExtractor() {
     }
 
     public void setVerticalRulingPositions(List<Float> positions) {
-        this.verticalRulingPositions = positions;
+        this.verticalRulingPositions = positions == null ? null : Collections.unmodifiableList(new ArrayList<>(positions));
     }
 
     public void setVerticalRulingPositionsRelative(boolean relative) {
@@ -33,6 +52,62 @@ public class TableExtractor {
         this.guess = guess;
     }
 
+    public void setGuessMethod(GuessMethod guessMethod) {
+        this.detectionAlgorithm = createDetectionAlgorithm(guessMethod, guessResolution, guessCoarseResolution,
+                guessMinimumTextCoverage);
+        this.guessMethod = guessMethod;
+    }
+
+    /**
+     * Sets the resolution, in DPI, pages are rendered at to guess their table areas, and the coarse resolution
+     * they're rendered at first to find where to look, or 0 to render them at {@code resolution} only. See
+     * {@link NurminenDetectionAlgorithm#NurminenDetectionAlgorithm(int, int)}. Only the raster and cascade guess
+     * methods render pages.
+     *
+     * @throws IllegalArgumentException if the resolution isn't positive, or the coarse resolution isn't 0 or lower
+     */
+    public void setGuessResolution(int resolution, int coarseResolution) {
+        this.detectionAlgorithm = createDetectionAlgorithm(guessMethod, resolution, coarseResolution,
+                guessMinimumTextCoverage);
+        this.guessResolution = resolution;
+        this.guessCoarseResolution = coarseResolution;
+    }
+
+    /**
+     * Sets the share of a page's text, between 0 and 1, that the tables the cascade guess method finds without
+     * rendering the page must contain for it to keep them. See
+     * {@link CascadeDetectionAlgorithm#CascadeDetectionAlgorithm(float, NurminenDetectionAlgorithm)}.
+     *
+     * @throws IllegalArgumentException if the share isn't between 0 and 1
+     */
+    public void setGuessMinimumTextCoverage(float minimumTextCoverage) {
+        this.detectionAlgorithm = createDetectionAlgorithm(guessMethod, guessResolution, guessCoarseResolution,
+                minimumTextCoverage);
+        this.guessMinimumTextCoverage = minimumTextCoverage;
+    }
+
+    /**
+     * The detection algorithm that guesses the table areas, which is kept from page to page
+     */
+    public DetectionAlgorithm getDetectionAlgorithm() {
+        return detectionAlgorithm;
+    }
+
+    private static DetectionAlgorithm createDetectionAlgorithm(GuessMethod guessMethod, int resolution,
+                                                               int coarseResolution, float minimumTextCoverage) {
+        // checks the settings whatever the method, so they're never accepted only to be rejected later
+        NurminenDetectionAlgorithm rasterDetector = new NurminenDetectionAlgorithm(resolution, coarseResolution);
+        CascadeDetectionAlgorithm cascadeDetector = new CascadeDetectionAlgorithm(minimumTextCoverage, rasterDetector);
+        switch (guessMethod) {
+            case VECTOR:
+                return new VectorDetectionAlgorithm();
+            case CASCADE:
+                return cascadeDetector;
+            default:
+                return rasterDetector;
+        }
+    }
+
     public void setUseLineReturns(boolean useLineReturns) {
         this.useLineReturns = useLineReturns;
     }
@@ -41,10 +116,37 @@ public class TableExtractor {
         this.method = method;
     }
 
+    /**
+     * Whether to extract the areas of a page concurrently: the ones given to {@link #extractTables(Page, List)},
+     * the ones guessed in stream mode, and the spreadsheets found in lattice mode. The tables come out in the same
+     * order either way.
+     */
+    public void setParallelAreas(boolean parallelAreas) {
+        this.parallelAreas = parallelAreas;
+        this.spreadsheetExtractor = new SpreadsheetExtractionAlgorithm(parallelAreas);
+    }
+
+    /**
+     * Extracts the tables of each of the areas of the page, in the order of the areas.
+     *
+     * When guessing, the areas are extracted one after the other even if they're set to be extracted concurrently,
+     * as guessing may render the page and documents can't be rendered from several threads at once.
+     */
+    public List<Table> extractTables(Page page, List<? extends Rectangle> areas) {
+        boolean parallel = parallelAreas && !guess;
+        List<List<Table>> tablesOfAreas = Utils.mapInOrder(areas, area -> extractTables(page.getArea(area)), parallel);
+
+        List<Table> tables = new ArrayList<>();
+        for (List<Table> tablesOfArea : tablesOfAreas) {
+            tables.addAll(tablesOfArea);
+        }
+        return tables;
+    }
+
     public List<Table> extractTables(Page page) {
         ExtractionMethod effectiveMethod = this.method;
         if (effectiveMethod == ExtractionMethod.DECIDE) {
-            effectiveMethod = spreadsheetExtractor.isTabular(page) ?
+            effectiveMethod = tabularityClassifier.isTabular(page) ?
                     ExtractionMethod.SPREADSHEET :
                     ExtractionMethod.BASIC;
         }
@@ -61,38 +163,39 @@ public class TableExtractor {
     public List<Table> extractTablesBasic(Page page) {
         if (guess) {
             // guess the page areas to extract using a detection algorithm
-            // currently we only have a detector that uses spreadsheets to find table areas
-            DetectionAlgorithm detector = new NurminenDetectionAlgorithm();
-            List<Rectangle> guesses = detector.detect(page);
-            List<Table> tables = new ArrayList<>();
+            List<Rectangle> guesses = getDetectionAlgorithm().detect(page);
+            List<List<Table>> tablesOfGuesses = Utils.mapInOrder(guesses,
+                    guessRect -> basicExtractor.extract(page.getArea(guessRect)), parallelAreas);
 
-            for (Rectangle guessRect : guesses) {
-                Page guess = page.getArea(guessRect);
-                tables.addAll(basicExtractor.extract(guess));
+            List<Table> tables = new ArrayList<>();
+            for (List<Table> tablesOfGuess : tablesOfGuesses) {
+                tables.addAll(tablesOfGuess);
             }
             return tables;
         }
 
+        // read once, in case the positions are set again meanwhile
+        List<Float> verticalRulingPositions = this.verticalRulingPositions;
         if (verticalRulingPositions != null) {
-            List<Float> absoluteRulingPositions = getFloats(page);
+            List<Float> absoluteRulingPositions = getFloats(page, verticalRulingPositions);
             return basicExtractor.extract(page, absoluteRulingPositions);
         }
 
         return basicExtractor.extract(page);
     }
 
-    private List<Float> getFloats(Page page) {
+    private List<Float> getFloats(Page page, List<Float> verticalRulingPositions) {
         List<Float> absoluteRulingPositions;
 
         if (this.verticalRulingPositionsRelative) {
             // convert relative to absolute
             absoluteRulingPositions = new ArrayList<>(verticalRulingPositions.size());
-            for (float relative : this.verticalRulingPositions) {
+            for (float relative : verticalRulingPositions) {
                 float absolute = (float) (relative / 100.0 * page.getWidth());
                 absoluteRulingPositions.add(absolute);
             }
         } else {
-            absoluteRulingPositions = this.verticalRulingPositions;
+            absoluteRulingPositions = verticalRulingPositions;
         }
         return absoluteRulingPositions;
     }
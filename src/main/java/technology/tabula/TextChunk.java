@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Collections;
-import java.util.HashMap;
 import java.text.Normalizer;
 
 @SuppressWarnings("serial")
@@ -32,33 +31,58 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
         LTR, NONE, RTL
     }
 
-    // I hate Java so bad.
-    // we're making this HashMap static! which requires really funky initialization per http://stackoverflow.com/questions/6802483/how-to-directly-initialize-a-hashmap-in-a-literal-way/6802502#6802502
-    private static HashMap<Byte, DirectionalityOptions> directionalities;
+    // lookup table from a bidirectional character type (as returned by Character.getDirectionality)
+    // to our directionality, indexed by type + 1 so that DIRECTIONALITY_UNDEFINED (-1) fits in.
+    // Types without an entry (e.g. the isolates added in Unicode 6.3) map to null.
+    private static final DirectionalityOptions[] DIRECTIONALITIES = new DirectionalityOptions[java.lang.Character.DIRECTIONALITY_POP_DIRECTIONAL_FORMAT + 2];
 
     static {
-        directionalities = new HashMap<>();
         // BCT = bidirectional character type
-        directionalities.put(java.lang.Character.DIRECTIONALITY_ARABIC_NUMBER, DirectionalityOptions.LTR);               // Weak BCT    "AN" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_BOUNDARY_NEUTRAL, DirectionalityOptions.NONE);            // Weak BCT    "BN" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_COMMON_NUMBER_SEPARATOR, DirectionalityOptions.LTR);     // Weak BCT    "CS" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_EUROPEAN_NUMBER, DirectionalityOptions.LTR);             // Weak BCT    "EN" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_EUROPEAN_NUMBER_SEPARATOR, DirectionalityOptions.LTR);   // Weak BCT    "ES" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_EUROPEAN_NUMBER_TERMINATOR, DirectionalityOptions.LTR);  // Weak BCT    "ET" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_LEFT_TO_RIGHT, DirectionalityOptions.LTR);              // Strong BCT  "L" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_LEFT_TO_RIGHT_EMBEDDING, DirectionalityOptions.LTR);     // Strong BCT  "LRE" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_LEFT_TO_RIGHT_OVERRIDE, DirectionalityOptions.LTR);      // Strong BCT  "LRO" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_NONSPACING_MARK, DirectionalityOptions.NONE);             // Weak BCT    "NSM" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_OTHER_NEUTRALS, DirectionalityOptions.NONE);              // Neutral BCT "ON" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_PARAGRAPH_SEPARATOR, DirectionalityOptions.NONE);         // Neutral BCT "B" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_POP_DIRECTIONAL_FORMAT, DirectionalityOptions.NONE);      // Weak BCT    "PDF" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT, DirectionalityOptions.RTL);              // Strong BCT  "R" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC, DirectionalityOptions.RTL);       // Strong BCT  "AL" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT_EMBEDDING, DirectionalityOptions.RTL);    // Strong BCT  "RLE" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT_OVERRIDE, DirectionalityOptions.RTL);     // Strong BCT  "RLO" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_SEGMENT_SEPARATOR, DirectionalityOptions.RTL);          // Neutral BCT "S" in the Unicode specification.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_UNDEFINED, DirectionalityOptions.NONE);                   // Undefined BCT.
-        directionalities.put(java.lang.Character.DIRECTIONALITY_WHITESPACE, DirectionalityOptions.NONE);                  // Neutral BCT "WS" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_ARABIC_NUMBER, DirectionalityOptions.LTR);               // Weak BCT    "AN" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_BOUNDARY_NEUTRAL, DirectionalityOptions.NONE);           // Weak BCT    "BN" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_COMMON_NUMBER_SEPARATOR, DirectionalityOptions.LTR);     // Weak BCT    "CS" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_EUROPEAN_NUMBER, DirectionalityOptions.LTR);             // Weak BCT    "EN" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_EUROPEAN_NUMBER_SEPARATOR, DirectionalityOptions.LTR);   // Weak BCT    "ES" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_EUROPEAN_NUMBER_TERMINATOR, DirectionalityOptions.LTR);  // Weak BCT    "ET" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_LEFT_TO_RIGHT, DirectionalityOptions.LTR);               // Strong BCT  "L" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_LEFT_TO_RIGHT_EMBEDDING, DirectionalityOptions.LTR);     // Strong BCT  "LRE" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_LEFT_TO_RIGHT_OVERRIDE, DirectionalityOptions.LTR);      // Strong BCT  "LRO" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_NONSPACING_MARK, DirectionalityOptions.NONE);            // Weak BCT    "NSM" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_OTHER_NEUTRALS, DirectionalityOptions.NONE);             // Neutral BCT "ON" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_PARAGRAPH_SEPARATOR, DirectionalityOptions.NONE);        // Neutral BCT "B" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_POP_DIRECTIONAL_FORMAT, DirectionalityOptions.NONE);     // Weak BCT    "PDF" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT, DirectionalityOptions.RTL);               // Strong BCT  "R" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC, DirectionalityOptions.RTL);        // Strong BCT  "AL" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT_EMBEDDING, DirectionalityOptions.RTL);     // Strong BCT  "RLE" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_RIGHT_TO_LEFT_OVERRIDE, DirectionalityOptions.RTL);      // Strong BCT  "RLO" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_SEGMENT_SEPARATOR, DirectionalityOptions.RTL);           // Neutral BCT "S" in the Unicode specification.
+        put(java.lang.Character.DIRECTIONALITY_UNDEFINED, DirectionalityOptions.NONE);                  // Undefined BCT.
+        put(java.lang.Character.DIRECTIONALITY_WHITESPACE, DirectionalityOptions.NONE);                 // Neutral BCT "WS" in the Unicode specification.
+    }
+
+    private static void put(byte bidirectionalCharacterType, DirectionalityOptions directionality) {
+        DIRECTIONALITIES[bidirectionalCharacterType + 1] = directionality;
+    }
+
+    private static DirectionalityOptions directionalityOf(char c) {
+        int index = Character.getDirectionality(c) + 1;
+        return index < DIRECTIONALITIES.length ? DIRECTIONALITIES[index] : null;
+    }
+
+    /**
+     * Returns true if any character of this chunk is right-to-left, i.e. if grouping it by
+     * directionality could reorder its elements.
+     */
+    boolean hasRightToLeftCharacters() {
+        for (TextElement te : this.textElements) {
+            String text = te.getText();
+            for (int i = 0; i < text.length(); i++) {
+                if (directionalityOf(text.charAt(i)) == DirectionalityOptions.RTL) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -73,6 +97,11 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
             throw new IllegalArgumentException();
         }
 
+        // plain left-to-right (or neutral) text is already in the right order
+        if (isLtrDominant && !this.hasRightToLeftCharacters()) {
+            return this;
+        }
+
         ArrayList<ArrayList<TextElement>> chunks = new ArrayList<>();
         ArrayList<TextElement> buff = new ArrayList<>();
         DirectionalityOptions buffDirectionality = DirectionalityOptions.NONE; // the directionality of the characters in buff;
@@ -82,15 +111,15 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
             //      because it is possible for a textelement to contain multiple characters?
 
 
-            // System.out.println(te.getText() + " is " + Character.getDirectionality(te.getText().charAt(0) ) + " " + directionalities.get(Character.getDirectionality(te.getText().charAt(0) )));
+            // System.out.println(te.getText() + " is " + Character.getDirectionality(te.getText().charAt(0) ) + " " + directionalityOf(te.getText().charAt(0)));
             if (buff.size() == 0) {
                 buff.add(te);
-                buffDirectionality = directionalities.get(Character.getDirectionality(te.getText().charAt(0)));
+                buffDirectionality = directionalityOf(te.getText().charAt(0));
             } else {
                 if (buffDirectionality == DirectionalityOptions.NONE) {
-                    buffDirectionality = directionalities.get(Character.getDirectionality(te.getText().charAt(0)));
+                    buffDirectionality = directionalityOf(te.getText().charAt(0));
                 }
-                DirectionalityOptions teDirectionality = directionalities.get(Character.getDirectionality(te.getText().charAt(0)));
+                DirectionalityOptions teDirectionality = directionalityOf(te.getText().charAt(0));
 
                 if (teDirectionality == buffDirectionality || teDirectionality == DirectionalityOptions.NONE) {
                     if (Character.getDirectionality(te.getText().charAt(0)) == java.lang.Character.DIRECTIONALITY_WHITESPACE && (buffDirectionality == (isLtrDominant ? DirectionalityOptions.RTL : DirectionalityOptions.LTR))) {
@@ -106,7 +135,7 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
                     chunks.add(buff);
 
                     // and start a new one
-                    buffDirectionality = directionalities.get(Character.getDirectionality(te.getText().charAt(0)));
+                    buffDirectionality = directionalityOf(te.getText().charAt(0));
                     buff = new ArrayList<>();
                     buff.add(te);
                 }
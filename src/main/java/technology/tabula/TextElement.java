@@ -261,6 +261,11 @@ public class TextElement extends Rectangle implements HasText {
         List<TextChunk> textChunksSeparatedByDirectionality = new ArrayList<>();
         // count up characters by directionality
         for (TextChunk chunk : textChunks) {
+            // most chunks are plain left-to-right text, which doesn't need regrouping
+            if (!chunk.hasRightToLeftCharacters()) {
+                textChunksSeparatedByDirectionality.add(chunk);
+                continue;
+            }
             // choose the dominant direction
             boolean isLtrDominant = chunk.isLtrDominant() != -1; // treat neutral as LTR
             TextChunk dirChunk = chunk.groupByDirectionality(isLtrDominant);
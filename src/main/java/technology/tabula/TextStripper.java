@@ -2,6 +2,7 @@ package technology.tabula;
 
 import org.apache.fontbox.util.BoundingBox;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
 import org.apache.pdfbox.pdmodel.font.PDType3Font;
@@ -10,7 +11,10 @@ import org.apache.pdfbox.text.TextPosition;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 public class TextStripper extends PDFTextStripper {
 
@@ -18,17 +22,52 @@ public class TextStripper extends PDFTextStripper {
     private static final float AVG_HEIGHT_MULT_THRESHOLD = 6.0f;
     private static final float MAX_BLANK_FONT_SIZE = 40.0f;
     private static final float MIN_BLANK_FONT_SIZE = 2.0f;
+
+    /**
+     * Reasons why a glyph reported by PDFBox doesn't become a {@link TextElement}.
+     */
+    public enum GlyphRejection {
+        /** none of its characters is printable */
+        NOT_PRINTABLE,
+        /** it is blank and much taller than the average glyph so far */
+        TALL_BLANK,
+        /** it is blank and its font size is out of the reasonable range */
+        BLANK_FONT_SIZE
+    }
+
+    // chars that are not ISO control characters and belong to a Unicode block other than Specials
+    private static final BitSet PRINTABLE_CHARS = new BitSet(Character.MAX_VALUE + 1);
+    // one String per character, so that the text of most TextElements is shared
+    private static final String[] SHARED_SINGLE_CHAR_STRINGS = new String[0x3000];
+
+    static {
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            Character.UnicodeBlock block = Character.UnicodeBlock.of((char) c);
+            if (!Character.isISOControl(c) && block != null && block != Character.UnicodeBlock.SPECIALS) {
+                PRINTABLE_CHARS.set(c);
+            }
+        }
+    }
+
     private final PDDocument document;
+    private final FontMetricsCache fontMetrics;
     private final ArrayList<TextElement> textElements;
     private final RectangleSpatialIndex<TextElement> spatialIndex;
+    private final int[] rejectedGlyphCounts = new int[GlyphRejection.values().length];
+    private int indexedTextElementCount = 0;
     private float minCharWidth = Float.MAX_VALUE;
     private float minCharHeight = Float.MAX_VALUE;
     private float totalHeight = 0.0f;
     private int countHeight = 0;
 
     public TextStripper(PDDocument document, int pageNumber) throws IOException {
+        this(document, pageNumber, new FontMetricsCache());
+    }
+
+    TextStripper(PDDocument document, int pageNumber, FontMetricsCache fontMetrics) throws IOException {
         super();
         this.document = document;
+        this.fontMetrics = fontMetrics;
         this.setStartPage(pageNumber);
         this.setEndPage(pageNumber);
         this.textElements = new ArrayList<>();
@@ -52,20 +91,23 @@ public class TextStripper extends PDFTextStripper {
 
             // if c not printable, return
             if (!isPrintable(c)) {
+                rejectedGlyphCounts[GlyphRejection.NOT_PRINTABLE.ordinal()]++;
                 continue;
             }
 
-            Float h = textPosition.getHeightDir();
+            float h = textPosition.getHeightDir();
 
             if (c.equals(NBSP)) { // replace non-breaking space for space
                 c = " ";
+            } else {
+                c = sharedString(c);
             }
 
             float wos = textPosition.getWidthOfSpace();
 
             TextElement te = new TextElement(Utils.round(textPosition.getYDirAdj() - h, 2),
                     Utils.round(textPosition.getXDirAdj(), 2), Utils.round(textPosition.getWidthDirAdj(), 2),
-                    Utils.round(textPosition.getHeightDir(), 2), textPosition.getFont(), textPosition.getFontSizeInPt(), c,
+                    Utils.round(h, 2), textPosition.getFont(), textPosition.getFontSizeInPt(), c,
                     // workaround a possible bug in PDFBox:
                     // https://issues.apache.org/jira/browse/PDFBOX-1755
                     wos, textPosition.getDir());
@@ -79,26 +121,42 @@ public class TextStripper extends PDFTextStripper {
             
             //We have an issue where tall blank cells throw off the row height calculation
             //Introspect a blank cell a bit here to see if it should be thrown away
-            if ((te.getText() == null || te.getText().trim().equals(""))) {
+            if (isBlank(c)) {
                 //if the cell height is more than AVG_HEIGHT_MULT_THRESHOLDxaverage, throw it away
                 if (avgHeight > 0
                         && te.getHeight() >= (avgHeight * AVG_HEIGHT_MULT_THRESHOLD)) {
+                    rejectedGlyphCounts[GlyphRejection.TALL_BLANK.ordinal()]++;
                     continue;
                 }
                 
                 //if the font size is outside of reasonable ranges, throw it away
                 if (textPosition.getFontSizeInPt() > MAX_BLANK_FONT_SIZE || textPosition.getFontSizeInPt() < MIN_BLANK_FONT_SIZE) {
+                    rejectedGlyphCounts[GlyphRejection.BLANK_FONT_SIZE.ordinal()]++;
                     continue;
                 }
             }
             
-            this.spatialIndex.add(te);
             this.textElements.add(te);
         }
     }
 
+    @Override
+    protected void endPage(PDPage page) throws IOException {
+        // index the page's characters in one go, in the order they were found
+        for (int i = indexedTextElementCount; i < this.textElements.size(); i++) {
+            this.spatialIndex.add(this.textElements.get(i));
+        }
+        indexedTextElementCount = this.textElements.size();
+        super.endPage(page);
+    }
+
   @Override
   protected float computeFontHeight(PDFont font) throws IOException
+  {
+    return fontMetrics.getFontHeight(font, this::measureFontHeight);
+  }
+
+  private float measureFontHeight(PDFont font) throws IOException
   {
     BoundingBox bbox = font.getBoundingBox();
     if (bbox.getLowerLeftY() < Short.MIN_VALUE)
@@ -145,16 +203,53 @@ public class TextStripper extends PDFTextStripper {
     return height;
   }
 
-    private boolean isPrintable(String s) {
-        Character c;
-        Character.UnicodeBlock block;
-        boolean printable = false;
+    private static boolean isPrintable(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (PRINTABLE_CHARS.get(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(String s) {
+        // same as s.trim().isEmpty(), without the copy
         for (int i = 0; i < s.length(); i++) {
-            c = s.charAt(i);
-            block = Character.UnicodeBlock.of(c);
-            printable |= !Character.isISOControl(c) && block != null && block != Character.UnicodeBlock.SPECIALS;
+            if (s.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sharedString(String s) {
+        if (s.length() != 1 || s.charAt(0) >= SHARED_SINGLE_CHAR_STRINGS.length) {
+            return s;
+        }
+        // racy but benign: every thread stores an equal, immutable String
+        String shared = SHARED_SINGLE_CHAR_STRINGS[s.charAt(0)];
+        if (shared == null) {
+            SHARED_SINGLE_CHAR_STRINGS[s.charAt(0)] = shared = s;
+        }
+        return shared;
+    }
+
+    /**
+     * Returns how many glyphs on the stripped page were dropped for the given reason.
+     */
+    public int getRejectedGlyphCount(GlyphRejection reason) {
+        return rejectedGlyphCounts[reason.ordinal()];
+    }
+
+    /**
+     * Returns how many glyphs on the stripped page were dropped for each reason.
+     */
+    public Map<GlyphRejection, Integer> getRejectedGlyphCounts() {
+        Map<GlyphRejection, Integer> counts = new EnumMap<>(GlyphRejection.class);
+        for (GlyphRejection reason : GlyphRejection.values()) {
+            counts.put(reason, getRejectedGlyphCount(reason));
         }
-        return printable;
+        return counts;
     }
 
     public List<TextElement> getTextElements() {
@@ -0,0 +1,179 @@
+package technology.tabula;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The columns of a table as arrays of values of the type inferred for each, for writers to write numbers and dates
+ * as such rather than as text.
+ *
+ * Integer columns are longs; decimal and percent columns doubles, percents as written; date columns ints, the days
+ * since 1970-01-01; and text columns the text of their cells. Cells that are blank, or not of their column's type,
+ * are null.
+ */
+public class TypedTable {
+
+    private final Table table;
+    private final ColumnType[] columnTypes;
+    private final Object[] columns;
+    private final BitSet[] nulls;
+
+    private TypedTable(Table table, ColumnType[] columnTypes) {
+        this.table = table;
+        this.columnTypes = columnTypes;
+        this.columns = new Object[columnTypes.length];
+        this.nulls = new BitSet[columnTypes.length];
+
+        int rowCount = table.getRowCount();
+        List<List<RectangularTextContainer>> rows = table.getRows();
+        CellValueParser parser = new CellValueParser();
+        for (int column = 0; column < columnTypes.length; column++) {
+            ColumnType columnType = columnTypes[column];
+            BitSet columnNulls = new BitSet(rowCount);
+            long[] longs = columnType == ColumnType.INTEGER ? new long[rowCount] : null;
+            double[] doubles = columnType == ColumnType.DECIMAL || columnType == ColumnType.PERCENT ? new double[rowCount] : null;
+            int[] ints = columnType == ColumnType.DATE ? new int[rowCount] : null;
+            String[] texts = columnType == ColumnType.TEXT ? new String[rowCount] : null;
+
+            for (int row = 0; row < rowCount; row++) {
+                if (column >= table.getColCount()) {
+                    columnNulls.set(row);
+                    continue;
+                }
+                String text = rows.get(row).get(column).getText();
+                if (texts != null) {
+                    texts[row] = text;
+                    continue;
+                }
+
+                ColumnType cellType = parser.parse(text);
+                if (cellType == columnType || (cellType == ColumnType.INTEGER && columnType == ColumnType.DECIMAL)) {
+                    if (longs != null) {
+                        longs[row] = parser.longValue;
+                    } else if (doubles != null) {
+                        doubles[row] = parser.doubleValue;
+                    } else {
+                        ints[row] = parser.epochDay;
+                    }
+                } else {
+                    columnNulls.set(row);
+                }
+            }
+
+            columns[column] = longs != null ? longs : doubles != null ? doubles : ints != null ? ints : texts;
+            nulls[column] = columnNulls;
+        }
+    }
+
+    /**
+     * Types the columns of the table as they're inferred from its cells
+     */
+    public static TypedTable of(Table table) {
+        return of(table, inferColumnTypes(Collections.singletonList(table)));
+    }
+
+    /**
+     * Types the columns of the table as given, as inferred for several tables that are written together
+     */
+    public static TypedTable of(Table table, ColumnType[] columnTypes) {
+        return new TypedTable(table, columnTypes.clone());
+    }
+
+    /**
+     * Infers the type of each column from the cells of all of the tables, as many columns as the widest table has
+     */
+    public static ColumnType[] inferColumnTypes(List<Table> tables) {
+        int columnCount = 0;
+        for (Table table : tables) {
+            columnCount = Math.max(columnCount, table.getColCount());
+        }
+
+        ColumnType[] columnTypes = new ColumnType[columnCount];
+        CellValueParser parser = new CellValueParser();
+        for (Table table : tables) {
+            for (List<RectangularTextContainer> row : table.getRows()) {
+                for (int column = 0; column < row.size(); column++) {
+                    if (columnTypes[column] == ColumnType.TEXT) {
+                        continue;
+                    }
+                    ColumnType cellType = parser.parse(row.get(column).getText());
+                    columnTypes[column] = combine(columnTypes[column], cellType);
+                }
+            }
+        }
+
+        // columns with only blank cells
+        for (int column = 0; column < columnCount; column++) {
+            if (columnTypes[column] == null) {
+                columnTypes[column] = ColumnType.TEXT;
+            }
+        }
+        return columnTypes;
+    }
+
+    private static ColumnType combine(ColumnType columnType, ColumnType cellType) {
+        if (columnType == null || cellType == null || columnType == cellType) {
+            return columnType == null ? cellType : columnType;
+        }
+        boolean numbers = (columnType == ColumnType.INTEGER || columnType == ColumnType.DECIMAL)
+                && (cellType == ColumnType.INTEGER || cellType == ColumnType.DECIMAL);
+        return numbers ? ColumnType.DECIMAL : ColumnType.TEXT;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public int getColCount() {
+        return columnTypes.length;
+    }
+
+    public ColumnType getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    public boolean isNull(int row, int column) {
+        return nulls[column].get(row);
+    }
+
+    /**
+     * The values of an integer column
+     */
+    public long[] getLongs(int column) {
+        return (long[]) typedColumn(column, ColumnType.INTEGER);
+    }
+
+    /**
+     * The values of a decimal or percent column
+     */
+    public double[] getDoubles(int column) {
+        if (columnTypes[column] == ColumnType.PERCENT) {
+            return (double[]) columns[column];
+        }
+        return (double[]) typedColumn(column, ColumnType.DECIMAL);
+    }
+
+    /**
+     * The values of a date column, in days since 1970-01-01
+     */
+    public int[] getEpochDays(int column) {
+        return (int[]) typedColumn(column, ColumnType.DATE);
+    }
+
+    /**
+     * The text of the cells of a text column
+     */
+    public String[] getTexts(int column) {
+        return (String[]) typedColumn(column, ColumnType.TEXT);
+    }
+
+    private Object typedColumn(int column, ColumnType columnType) {
+        if (columnTypes[column] != columnType) {
+            throw new IllegalArgumentException("Column " + column + " is " + columnTypes[column].getName()
+                    + ", not " + columnType.getName());
+        }
+        return columns[column];
+    }
+
+}
@@ -8,6 +8,9 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.cli.ParseException;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -38,7 +41,30 @@ public class Utils {
         return (Math.abs(f1 - f2) < EPSILON);
     }
 
+    private static final float[] POWERS_OF_TEN = { 1f, 10f, 100f, 1000f, 10000f, 100000f, 1000000f };
+    private static final double MAX_FAST_ROUNDED_VALUE = 1 << 22;
+
+    /**
+     * Rounds half up to the given number of decimal places, like {@link BigDecimal#ROUND_HALF_UP}
+     * applied to the decimal representation of {@code d}.
+     */
     public static float round(double d, int decimalPlace) {
+        if (decimalPlace >= 0 && decimalPlace < POWERS_OF_TEN.length) {
+            double scaled = Math.abs(d) * POWERS_OF_TEN[decimalPlace];
+            if (scaled < MAX_FAST_ROUNDED_VALUE) {
+                double floor = Math.floor(scaled);
+                double fraction = scaled - floor;
+                // close to a tie the decimal representation decides, so leave those to BigDecimal
+                if (Math.abs(fraction - 0.5) > 4 * Math.ulp(scaled)) {
+                    long rounded = (long) (fraction > 0.5 ? floor + 1 : floor);
+                    if (rounded == 0) {
+                        return 0f;
+                    }
+                    float result = rounded / POWERS_OF_TEN[decimalPlace];
+                    return d < 0 ? -result : result;
+                }
+            }
+        }
         BigDecimal bd = new BigDecimal(Double.toString(d));
         bd = bd.setScale(decimalPlace, BigDecimal.ROUND_HALF_UP);
         return bd.floatValue();
@@ -104,6 +130,16 @@ public class Utils {
         return out.toString();
     }
 
+    /**
+     * Applies the function to each item and returns the results in the items' order. If parallel, the items are
+     * worked on concurrently on the common fork-join pool, so the function must be safe to call from several threads.
+     */
+    public static <T, R> List<R> mapInOrder(List<T> items, Function<? super T, ? extends R> function, boolean parallel) {
+        // lists that aren't backed by an array split badly
+        Stream<T> stream = parallel && items.size() > 1 ? new ArrayList<>(items).parallelStream() : items.stream();
+        return stream.<R>map(function).collect(Collectors.toList());
+    }
+
     public static <T> List<List<T>> transpose(List<List<T>> table) {
         List<List<T>> ret = new ArrayList<>();
         final int N = table.get(0).size();
@@ -0,0 +1,200 @@
+package technology.tabula.detectors;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import technology.tabula.Page;
+import technology.tabula.Rectangle;
+import technology.tabula.TextElement;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tries the detection algorithms from cheapest to most expensive, and stops at the first one whose tables look
+ * right:
+ * <ol>
+ * <li>{@link SpreadsheetDetectionAlgorithm}, from the page's ruling lines alone; its tables are kept if it finds
+ * some and they contain enough of the page's text.</li>
+ * <li>{@link VectorDetectionAlgorithm}, which adds the text heuristics; its tables are kept if they contain enough
+ * of the page's text, or if the page has no images that ruling lines could be hidden in.</li>
+ * <li>{@link NurminenDetectionAlgorithm}, which renders the page.</li>
+ * </ol>
+ * It counts how many pages each stage finished, so the thresholds can be tuned to keep most pages in the cheap
+ * stages.
+ */
+public class CascadeDetectionAlgorithm implements DetectionAlgorithm {
+
+    public enum Stage {
+        RULINGS, VECTOR, RASTER
+    }
+
+    public static final float DEFAULT_MINIMUM_TEXT_COVERAGE = 0.8f;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CascadeDetectionAlgorithm.class);
+
+    private final float minimumTextCoverage;
+
+    private final SpreadsheetDetectionAlgorithm rulingsDetector = new SpreadsheetDetectionAlgorithm();
+    private final VectorDetectionAlgorithm vectorDetector = new VectorDetectionAlgorithm();
+    private final NurminenDetectionAlgorithm rasterDetector;
+
+    private final Map<Stage, AtomicInteger> pagesFinished = new EnumMap<>(Stage.class);
+
+    public CascadeDetectionAlgorithm() {
+        this(DEFAULT_MINIMUM_TEXT_COVERAGE, new NurminenDetectionAlgorithm());
+    }
+
+    /**
+     * @param minimumTextCoverage the share of the page's text, between 0 and 1, that the tables found by a cheap
+     *                            stage must contain for them to be kept
+     * @param rasterDetector      the detection algorithm of the last stage
+     */
+    public CascadeDetectionAlgorithm(float minimumTextCoverage, NurminenDetectionAlgorithm rasterDetector) {
+        if (!(minimumTextCoverage >= 0 && minimumTextCoverage <= 1)) {
+            throw new IllegalArgumentException("Minimum text coverage must be between 0 and 1: " + minimumTextCoverage);
+        }
+        this.minimumTextCoverage = minimumTextCoverage;
+        this.rasterDetector = rasterDetector;
+        for (Stage stage : Stage.values()) {
+            pagesFinished.put(stage, new AtomicInteger());
+        }
+    }
+
+    public float getMinimumTextCoverage() {
+        return minimumTextCoverage;
+    }
+
+    public NurminenDetectionAlgorithm getRasterDetector() {
+        return rasterDetector;
+    }
+
+    /**
+     * The number of pages whose tables were found by the given stage so far
+     */
+    public int getPagesFinishedAt(Stage stage) {
+        return pagesFinished.get(stage).get();
+    }
+
+    /**
+     * How many pages each stage finished so far, in a line for people to read, e.g. to tune the minimum text coverage
+     */
+    public String getSummary() {
+        int pages = 0;
+        List<String> counts = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            int pagesFinished = getPagesFinishedAt(stage);
+            pages += pagesFinished;
+            counts.add(pagesFinished + " at " + stage.name().toLowerCase());
+        }
+        return String.format(Locale.US, "Cascade detection finished %d pages: %s (minimum text coverage %s)", pages,
+                String.join(", ", counts), minimumTextCoverage);
+    }
+
+    @Override
+    public List<Rectangle> detect(Page page) {
+        List<Rectangle> tables = rulingsDetector.detect(page);
+        float textCoverage = getTextCoverage(page, tables);
+        if (!tables.isEmpty() && textCoverage >= minimumTextCoverage) {
+            return finish(page, Stage.RULINGS, tables);
+        }
+        LOGGER.debug("Page {}: {} tables from rulings contain {} of the text, trying vector detection",
+                page.getPageNumber(), tables.size(), textCoverage);
+
+        tables = vectorDetector.detect(page);
+        textCoverage = getTextCoverage(page, tables);
+        if (!tables.isEmpty() && textCoverage >= minimumTextCoverage) {
+            return finish(page, Stage.VECTOR, tables);
+        }
+        if (!hasImages(page)) {
+            // the rulings are all there is to see, rendering the page won't find any others
+            return finish(page, Stage.VECTOR, tables);
+        }
+        LOGGER.debug("Page {}: {} tables from vector detection contain {} of the text and the page has images, "
+                + "trying raster detection", page.getPageNumber(), tables.size(), textCoverage);
+
+        return finish(page, Stage.RASTER, rasterDetector.detect(page));
+    }
+
+    private List<Rectangle> finish(Page page, Stage stage, List<Rectangle> tables) {
+        pagesFinished.get(stage).incrementAndGet();
+        LOGGER.debug("Page {}: {} tables found at stage {}", page.getPageNumber(), tables.size(), stage);
+        return tables;
+    }
+
+    /**
+     * The share of the page's text elements whose centers are in one of the tables, or 1 if it has no text
+     */
+    private static float getTextCoverage(Page page, List<Rectangle> tables) {
+        List<TextElement> text = page.getText();
+        if (text.isEmpty()) {
+            return 1;
+        }
+
+        int covered = 0;
+        for (TextElement element : text) {
+            for (Rectangle table : tables) {
+                if (table.contains(element.getCenterX(), element.getCenterY())) {
+                    covered++;
+                    break;
+                }
+            }
+        }
+        return (float) covered / text.size();
+    }
+
+    private static boolean hasImages(Page page) {
+        if (page.getPDPage() == null) {
+            return false;
+        }
+        return hasImages(page.getPDPage().getResources(), new HashSet<>());
+    }
+
+    private static boolean hasImages(PDResources resources, Set<COSDictionary> visited) {
+        // forms can share resources, or even contain themselves
+        if (resources == null || !visited.add(resources.getCOSObject())) {
+            return false;
+        }
+
+        for (COSName name : resources.getXObjectNames()) {
+            PDXObject xObject;
+            try {
+                xObject = resources.getXObject(name);
+            } catch (IOException e) {
+                // can't tell what it is, so it might as well be an image
+                return true;
+            }
+
+            if (xObject instanceof PDImageXObject) {
+                return true;
+            }
+            if (xObject instanceof PDFormXObject && hasImages(((PDFormXObject) xObject).getResources(), visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        List<String> counts = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            counts.add(stage.name().toLowerCase() + "=" + getPagesFinishedAt(stage));
+        }
+        return String.format("%s[minimumTextCoverage=%s, pagesFinished=%s]", getClass().getSimpleName(),
+                minimumTextCoverage, counts);
+    }
+}
@@ -0,0 +1,308 @@
+package technology.tabula.detectors;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType3Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDTransparencyGroup;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+import org.apache.pdfbox.util.Matrix;
+import org.apache.pdfbox.util.Vector;
+
+/**
+ * Renders the grayscale images table detection looks for edges in: the page as a person sees it, and the
+ * same page without its text. Both come out of a single pass over the page's content.
+ *
+ * Not thread safe, use one renderer per thread.
+ */
+final class DetectionRenderer extends PDFRenderer {
+
+    /**
+     * The two renderings of a page, at the same resolution
+     */
+    static final class PageImages {
+        final BufferedImage withText;
+        final BufferedImage withoutText;
+
+        PageImages(BufferedImage withText, BufferedImage withoutText) {
+            this.withText = withText;
+            this.withoutText = withoutText;
+        }
+    }
+
+    private int imageWidth;
+    private int imageHeight;
+    private Shape clip;
+    private BufferedImage withoutText;
+
+    DetectionRenderer(PDDocument document) {
+        super(document);
+    }
+
+    PageImages renderImages(int pageIndex, float dpi) throws IOException {
+        return this.renderImages(pageIndex, dpi, null);
+    }
+
+    /**
+     * Renders the page at the given index, drawing only what falls within the given clip, in pixels at the given
+     * resolution, if it's not null
+     */
+    PageImages renderImages(int pageIndex, float dpi, Shape clip) throws IOException {
+        this.clip = clip;
+
+        Dimension imageSize = getImageSize(document.getPage(pageIndex), dpi);
+        imageWidth = imageSize.width;
+        imageHeight = imageSize.height;
+
+        withoutText = null;
+        BufferedImage withText = this.renderImageWithDPI(pageIndex, dpi, ImageType.GRAY);
+        if (withoutText.getType() != withText.getType()) {
+            // PDFRenderer renders pages that use blend modes in ARGB and converts the result, do the same
+            BufferedImage converted = new BufferedImage(withoutText.getWidth(), withoutText.getHeight(), withText.getType());
+            Graphics2D graphics = converted.createGraphics();
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, converted.getWidth(), converted.getHeight());
+            graphics.drawImage(withoutText, 0, 0, null);
+            graphics.dispose();
+            withoutText = converted;
+        }
+        PageImages images = new PageImages(withText, withoutText);
+        withoutText = null;
+        this.clip = null;
+        return images;
+    }
+
+    /**
+     * Renders the rows of the page at the given index from {@code top} on into the given images, which are as wide
+     * as the page rendered at the given resolution. Only what falls within the clip is drawn, if it's not null.
+     *
+     * The page's whole content is interpreted for each strip, so rendering a page in N strips costs N times the
+     * parsing of its content stream and the drawing calls, though what falls outside the strip is clipped away
+     * before it's rasterized, and images outside it aren't decoded at all.
+     */
+    void renderStrip(int pageIndex, float dpi, Shape clip, int top, BufferedImage withText, BufferedImage withoutText)
+            throws IOException {
+        this.clip = clip == null ? null : AffineTransform.getTranslateInstance(0, -top).createTransformedShape(clip);
+        this.imageWidth = withoutText.getWidth();
+        this.imageHeight = withoutText.getHeight();
+        this.withoutText = withoutText;
+
+        Graphics2D graphics = withText.createGraphics();
+        try {
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, withText.getWidth(), withText.getHeight());
+            graphics.translate(0, -top);
+            this.renderPageToGraphics(pageIndex, graphics, dpi / 72f);
+        } finally {
+            graphics.dispose();
+            this.withoutText = null;
+            this.clip = null;
+        }
+    }
+
+    /**
+     * The size of the page rendered at the given resolution, same as PDFRenderer.renderImage's
+     */
+    static Dimension getImageSize(PDPage page, float dpi) {
+        float scale = dpi / 72f;
+        PDRectangle cropBox = page.getCropBox();
+        int width = (int) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        int height = (int) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        boolean rotated = page.getRotation() == 90 || page.getRotation() == 270;
+        return rotated ? new Dimension(height, width) : new Dimension(width, height);
+    }
+
+    @Override
+    protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+        return new DetectionPageDrawer(parameters);
+    }
+
+    private final class DetectionPageDrawer extends PageDrawer {
+
+        private TeeGraphics2D tee;
+        // the part of the image being rendered to that's drawn in, in pixels
+        private Rectangle2D drawnBounds;
+        // while the text-free image is drawn on its own
+        private boolean textHidden;
+
+        DetectionPageDrawer(PageDrawerParameters parameters) throws IOException {
+            super(parameters);
+        }
+
+        @Override
+        public void drawPage(Graphics g, PDRectangle pageSize) throws IOException {
+            // set the text-free image up exactly like the one being rendered to was set up
+            Graphics2D graphics = (Graphics2D) g;
+            BufferedImage image = withoutText != null ?
+                    withoutText :
+                    graphics.getDeviceConfiguration().createCompatibleImage(imageWidth, imageHeight);
+
+            Graphics2D imageGraphics = image.createGraphics();
+            imageGraphics.setBackground(graphics.getBackground());
+            imageGraphics.clearRect(0, 0, image.getWidth(), image.getHeight());
+            imageGraphics.setRenderingHints(graphics.getRenderingHints());
+            imageGraphics.setTransform(graphics.getTransform());
+
+            tee = new TeeGraphics2D(graphics, imageGraphics);
+            drawnBounds = new Rectangle2D.Float(0, 0, imageWidth, imageHeight);
+            if (clip != null) {
+                drawnBounds = drawnBounds.createIntersection(clip.getBounds2D());
+                AffineTransform transform = tee.getTransform();
+                tee.setTransform(new AffineTransform());
+                tee.clip(clip);
+                tee.setTransform(transform);
+            }
+            try {
+                super.drawPage(tee, pageSize);
+            } finally {
+                imageGraphics.dispose();
+            }
+            withoutText = image;
+        }
+
+        @Override
+        protected void showFontGlyph(Matrix textRenderingMatrix, PDFont font, int code, Vector displacement)
+                throws IOException {
+            if (textHidden) {
+                return;
+            }
+            boolean secondaryDrawing = tee.isSecondaryDrawing();
+            tee.setSecondaryDrawing(false);
+            try {
+                super.showFontGlyph(textRenderingMatrix, font, code, displacement);
+            } finally {
+                tee.setSecondaryDrawing(secondaryDrawing);
+            }
+        }
+
+        @Override
+        protected void showType3Glyph(Matrix textRenderingMatrix, PDType3Font font, int code, Vector displacement)
+                throws IOException {
+            if (textHidden) {
+                return;
+            }
+            boolean secondaryDrawing = tee.isSecondaryDrawing();
+            tee.setSecondaryDrawing(false);
+            try {
+                super.showType3Glyph(textRenderingMatrix, font, code, displacement);
+            } finally {
+                tee.setSecondaryDrawing(secondaryDrawing);
+            }
+        }
+
+        @Override
+        public void drawImage(PDImage pdImage) throws IOException {
+            // don't decode images that end up entirely outside of the clipping path, or outside of the strip or
+            // clip being rendered, they can't contain rulings
+            Shape image = getGraphicsState().getCurrentTransformationMatrix().createAffineTransform()
+                    .createTransformedShape(new Rectangle2D.Float(0, 0, 1, 1));
+            Rectangle2D imageBounds = image.getBounds2D();
+            for (Path2D clippingPath : getGraphicsState().getCurrentClippingPaths()) {
+                if (!imageBounds.intersects(clippingPath.getBounds2D())) {
+                    return;
+                }
+            }
+            if (getGraphics() == tee) {
+                // in pixels, with one to spare for the pixels the image's edges are smoothed into
+                Rectangle2D pixelBounds = tee.getTransform().createTransformedShape(image).getBounds2D();
+                if (!drawnBounds.intersects(pixelBounds.getX() - 1, pixelBounds.getY() - 1,
+                        pixelBounds.getWidth() + 2, pixelBounds.getHeight() + 2)) {
+                    return;
+                }
+            }
+            if (getGraphicsState().getSoftMask() != null) {
+                drawApart(() -> super.drawImage(pdImage), null);
+            } else {
+                super.drawImage(pdImage);
+            }
+        }
+
+        @Override
+        public void showTransparencyGroup(PDTransparencyGroup form) throws IOException {
+            drawApart(() -> super.showTransparencyGroup(form), null);
+        }
+
+        @Override
+        public void fillPath(int windingRule) throws IOException {
+            if (getGraphicsState().getSoftMask() != null) {
+                drawApart(() -> super.fillPath(windingRule), (GeneralPath) getLinePath().clone());
+            } else {
+                super.fillPath(windingRule);
+            }
+        }
+
+        @Override
+        public void strokePath() throws IOException {
+            if (getGraphicsState().getSoftMask() != null) {
+                drawApart(super::strokePath, (GeneralPath) getLinePath().clone());
+            } else {
+                super.strokePath();
+            }
+        }
+
+        @Override
+        public void shadingFill(COSName shadingName) throws IOException {
+            if (getGraphicsState().getSoftMask() != null) {
+                drawApart(() -> super.shadingFill(shadingName), null);
+            } else {
+                super.shadingFill(shadingName);
+            }
+        }
+
+        /**
+         * Draws to each image on its own what is composed offscreen before it's drawn: transparency groups, and
+         * whatever is drawn through a soft mask, which is a transparency group too. Glyphs in them are drawn to the
+         * group's own graphics rather than to the tee, so the text-free image is drawn once more with text hidden.
+         * The path being painted, if any, is put back for the second drawing, as painting it resets it.
+         */
+        private void drawApart(Drawing drawing, GeneralPath linePath) throws IOException {
+            if (getGraphics() != tee || !tee.isSecondaryDrawing()) {
+                // within a group, or only drawing to the rendered image anyway
+                drawing.draw();
+                return;
+            }
+
+            tee.setSecondaryDrawing(false);
+            try {
+                drawing.draw();
+            } finally {
+                tee.setSecondaryDrawing(true);
+            }
+
+            if (linePath != null) {
+                getLinePath().reset();
+                getLinePath().append(linePath, false);
+            }
+            tee.setPrimaryDrawing(false);
+            textHidden = true;
+            try {
+                drawing.draw();
+            } finally {
+                tee.setPrimaryDrawing(true);
+                textHidden = false;
+            }
+        }
+    }
+
+    private interface Drawing {
+        void draw() throws IOException;
+    }
+}
@@ -1,28 +1,20 @@
 package technology.tabula.detectors;
 
+import java.awt.Dimension;
+import java.awt.geom.Area;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.Raster;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.*;
 
-import org.apache.pdfbox.contentstream.operator.Operator;
-import org.apache.pdfbox.cos.COSName;
-import org.apache.pdfbox.pdfparser.PDFStreamParser;
-import org.apache.pdfbox.pdfwriter.ContentStreamWriter;
-import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.common.PDStream;
-import org.apache.pdfbox.rendering.ImageType;
 
 import technology.tabula.Line;
 import technology.tabula.Page;
 import technology.tabula.Rectangle;
 import technology.tabula.Ruling;
 import technology.tabula.TextChunk;
-import technology.tabula.TextElement;
 import technology.tabula.Utils;
 import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
 
@@ -35,20 +27,81 @@ import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
  */
 public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
 
+    // the resolution the page is rendered at by default; the pixel distances below are measured at this
+    // resolution, and so are the rulings the rest of the algorithm works with, whatever resolution they're found at
+    public static final int DEFAULT_RESOLUTION = 144;
+
     private static final int GRAYSCALE_INTENSITY_THRESHOLD = 25;
     private static final int HORIZONTAL_EDGE_WIDTH_MINIMUM = 50;
     private static final int VERTICAL_EDGE_HEIGHT_MINIMUM = 10;
+    // pixels an edge may lose at each end at the coarse resolution, where its ends share pixels with the background
+    private static final int COARSE_EDGE_END_LOSS = 1;
+    // padding, in coarse pixels, around the edges found at the coarse resolution when re-rendering them
+    private static final int CANDIDATE_REGION_PADDING = 3;
+    // size, in full resolution pixels, of the buckets candidate regions are put in to find the ones that overlap
+    private static final int CANDIDATE_REGION_BUCKET_SIZE = 256;
+    // pages whose image would have more pixels than this are rendered in strips of about STRIP_IMAGE_PIXELS
+    private static final int MAXIMUM_IMAGE_PIXELS = 1 << 24;
+    private static final int STRIP_IMAGE_PIXELS = 1 << 22;
     private static final int CELL_CORNER_DISTANCE_MAXIMUM = 10;
     private static final float POINT_SNAP_DISTANCE_THRESHOLD = 8f;
     private static final float TABLE_PADDING_AMOUNT = 1.0f;
     private static final int REQUIRED_TEXT_LINES_FOR_EDGE = 4;
     private static final int REQUIRED_CELLS_FOR_TABLE = 4;
     private static final float IDENTICAL_TABLE_OVERLAP_RATIO = 0.9f;
+    // size, in points, of the buckets tables are put in to find the ones that overlap
+    private static final float TABLE_BUCKET_SIZE = 100f;
+
+    private static final StripBufferPool STRIP_BUFFERS = new StripBufferPool(2 * Runtime.getRuntime().availableProcessors());
+
+    private final int resolution;
+    private final int coarseResolution;
+
+    /**
+     * Detects tables in pages rendered at {@link #DEFAULT_RESOLUTION}.
+     */
+    public NurminenDetectionAlgorithm() {
+        this(DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * Detects tables in pages rendered at the given resolution, in DPI.
+     */
+    public NurminenDetectionAlgorithm(int resolution) {
+        this(resolution, 0);
+    }
+
+    /**
+     * Detects tables coarse-to-fine: edges are first looked for in the whole page rendered at
+     * {@code coarseResolution}, then only the regions around them are rendered at {@code resolution} to find
+     * the actual edges. A {@code coarseResolution} of 0 renders the whole page at {@code resolution}.
+     *
+     * Edges too faint or too thin to show at the coarse resolution are missed, so this trades some accuracy for
+     * processing a fraction of the pixels on large pages.
+     */
+    public NurminenDetectionAlgorithm(int resolution, int coarseResolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("resolution must be positive: " + resolution);
+        }
+        if (coarseResolution < 0 || coarseResolution >= resolution) {
+            throw new IllegalArgumentException("coarse resolution must be 0 or between 0 and " + resolution + ": " + coarseResolution);
+        }
+        this.resolution = resolution;
+        this.coarseResolution = coarseResolution;
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    public int getCoarseResolution() {
+        return coarseResolution;
+    }
 
     /**
      * Helper class that encapsulates a text edge
      */
-    private static final class TextEdge extends Line2D.Float {
+    static final class TextEdge extends Line2D.Float {
         // types of text edges
         public static final int LEFT = 0;
         public static final int MID = 1;
@@ -66,7 +119,7 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
     /**
      * Helper container for all text edges on a page
      */
-    private static final class TextEdges extends ArrayList<List<TextEdge>> {
+    static final class TextEdges extends ArrayList<List<TextEdge>> {
         public TextEdges(List<TextEdge> leftEdges, List<TextEdge> midEdges, List<TextEdge> rightEdges) {
             super(3);
             this.add(leftEdges);
@@ -88,44 +141,322 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         }
     }
 
-    @Override
-    public List<Rectangle> detect(Page page) {
+    /**
+     * Helper class that keeps track of the text edges (lines that align with the left, middle and right of chunks of
+     * text) that extend uninterrupted over at least REQUIRED_TEXT_LINES_FOR_EDGE lines of text, as lines are taken
+     * out. Edges only change at the positions the chunks of the lines taken out were at or crossed, so only those
+     * are worked out again.
+     */
+    static final class TextEdgeIndex {
+        private final List<Line> allLines;
+        private final BitSet removedLines;
+        private final List<Line> lines;
+        // the first chunk of each line, and one past the last chunk of the last line
+        private final int[] lineChunkStarts;
+
+        // every chunk of text, in the order the lines are swept, with the line it's in
+        private final TextChunk[] chunks;
+        private final int[] chunkLines;
+        private final int[] chunkLefts;
+        private final int[] chunkRights;
+
+        private final EdgePositions[] edgePositions = new EdgePositions[TextEdge.NUM_TYPES];
+
+        TextEdgeIndex(List<Line> lines) {
+            this.allLines = new ArrayList<>(lines);
+            this.removedLines = new BitSet(lines.size());
+            this.lines = new ArrayList<>(lines);
+            this.lineChunkStarts = new int[lines.size() + 1];
+
+            int chunkCount = 0;
+            for (Line textRow : lines) {
+                chunkCount += textRow.getTextElements().size();
+            }
 
-        // get horizontal & vertical lines
-        // we get these from an image of the PDF and not the PDF itself because sometimes there are invisible PDF
-        // instructions that are interpreted incorrectly as visible elements - we really want to capture what a
-        // person sees when they look at the PDF
-        BufferedImage image;
-        PDPage pdfPage = page.getPDPage();
-        try {
-            image = Utils.pageConvertToImage(page.getPDDoc(), pdfPage, 144, ImageType.GRAY);
-        } catch (IOException e) {
-            return new ArrayList<>();
+            this.chunks = new TextChunk[chunkCount];
+            this.chunkLines = new int[chunkCount];
+            this.chunkLefts = new int[chunkCount];
+            this.chunkRights = new int[chunkCount];
+
+            int chunk = 0;
+            for (int line = 0; line < lines.size(); line++) {
+                lineChunkStarts[line] = chunk;
+                for (TextChunk text : lines.get(line).getTextElements()) {
+                    chunks[chunk] = text;
+                    chunkLines[chunk] = line;
+                    chunkLefts[chunk] = (int) Math.floor(text.getLeft());
+                    chunkRights[chunk] = (int) Math.floor(text.getRight());
+                    chunk++;
+                }
+            }
+            lineChunkStarts[lines.size()] = chunk;
+
+            for (int edgeType = 0; edgeType < TextEdge.NUM_TYPES; edgeType++) {
+                edgePositions[edgeType] = new EdgePositions(edgeType);
+            }
         }
 
-        List<Ruling> horizontalRulings = this.getHorizontalRulings(image);
+        /**
+         * The lines that haven't been taken out, in their original order
+         */
+        List<Line> getLines() {
+            return lines;
+        }
 
-        // now check the page for vertical lines, but remove the text first to make things less confusing
-        PDDocument removeTextDocument = null;
-        try {
-            removeTextDocument = this.removeText(pdfPage);
-            pdfPage = removeTextDocument.getPage(0);
-            image = Utils.pageConvertToImage(removeTextDocument, pdfPage, 144, ImageType.GRAY);
-        } catch (Exception e) {
-            return new ArrayList<>();
-        } finally {
-            if (removeTextDocument != null) {
-                try {
-                    removeTextDocument.close();
-                } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
+        void removeLinesContainedIn(Rectangle table) {
+            // only the lines still in are looked at
+            BitSet newlyRemovedLines = new BitSet(allLines.size());
+            for (int line = removedLines.nextClearBit(0); line < allLines.size(); line = removedLines.nextClearBit(line + 1)) {
+                if (table.contains(allLines.get(line))) {
+                    newlyRemovedLines.set(line);
                 }
             }
+
+            if (newlyRemovedLines.isEmpty()) {
+                return;
+            }
+            removedLines.or(newlyRemovedLines);
+
+            lines.clear();
+            for (int line = removedLines.nextClearBit(0); line < allLines.size(); line = removedLines.nextClearBit(line + 1)) {
+                lines.add(allLines.get(line));
+            }
+
+            for (EdgePositions positions : edgePositions) {
+                positions.update(newlyRemovedLines);
+            }
+        }
+
+        TextEdges getTextEdges() {
+            return new TextEdges(edgePositions[TextEdge.LEFT].getEdges(), edgePositions[TextEdge.MID].getEdges(),
+                    edgePositions[TextEdge.RIGHT].getEdges());
         }
 
-        List<Ruling> verticalRulings = this.getVerticalRulings(image);
+        /**
+         * The edges of one type, by position. A chunk of text starts or extends the edge at its position, and
+         * interrupts the edges at the positions it crosses; sweeping the events at a position in order gives the
+         * edges there.
+         */
+        private final class EdgePositions {
+            private final int edgeType;
+            // the distinct positions of the chunks, in ascending order
+            private final int[] keys;
+            // for each position, the chunks that extend (chunk << 1) or interrupt (chunk << 1 | 1) edges there
+            private final int[][] events;
+            // for each position, the edges there as (first chunk, last chunk, chunk count) triples
+            private final int[][] edges;
+
+            EdgePositions(int edgeType) {
+                this.edgeType = edgeType;
+
+                int[] chunkKeys = new int[chunks.length];
+                for (int chunk = 0; chunk < chunks.length; chunk++) {
+                    chunkKeys[chunk] = keyOf(chunk);
+                }
+                this.keys = distinctSorted(chunkKeys);
+
+                // count the events at each position first so they fit in arrays
+                int[] eventCounts = new int[keys.length];
+                for (int chunk = 0; chunk < chunks.length; chunk++) {
+                    eventCounts[Arrays.binarySearch(keys, chunkKeys[chunk])]++;
+                    for (int key = firstCrossedKey(chunk); key <= lastCrossedKey(chunk); key++) {
+                        if (interrupts(chunk, keys[key])) {
+                            eventCounts[key]++;
+                        }
+                    }
+                }
+
+                this.events = new int[keys.length][];
+                for (int key = 0; key < keys.length; key++) {
+                    events[key] = new int[eventCounts[key]];
+                }
+                Arrays.fill(eventCounts, 0);
+                for (int chunk = 0; chunk < chunks.length; chunk++) {
+                    int key = Arrays.binarySearch(keys, chunkKeys[chunk]);
+                    events[key][eventCounts[key]++] = chunk << 1;
+                    for (key = firstCrossedKey(chunk); key <= lastCrossedKey(chunk); key++) {
+                        if (interrupts(chunk, keys[key])) {
+                            events[key][eventCounts[key]++] = chunk << 1 | 1;
+                        }
+                    }
+                }
+
+                this.edges = new int[keys.length][];
+                for (int key = 0; key < keys.length; key++) {
+                    sweep(key);
+                }
+            }
+
+            private int keyOf(int chunk) {
+                int left = chunkLefts[chunk];
+                int right = chunkRights[chunk];
+                switch (edgeType) {
+                    case TextEdge.LEFT:
+                        return left;
+                    case TextEdge.MID:
+                        return left + ((right - left) / 2);
+                    default:
+                        return right;
+                }
+            }
+
+            // the index of the first and last positions strictly between the left and right of the chunk
+            private int firstCrossedKey(int chunk) {
+                int index = Arrays.binarySearch(keys, chunkLefts[chunk] + 1);
+                return index >= 0 ? index : -index - 1;
+            }
+
+            private int lastCrossedKey(int chunk) {
+                int index = Arrays.binarySearch(keys, chunkRights[chunk] - 1);
+                return index >= 0 ? index : -index - 2;
+            }
+
+            private boolean interrupts(int chunk, int key) {
+                // mid edges aren't interrupted by chunks whose own middle is close to them
+                return edgeType != TextEdge.MID || Math.abs(key - keyOf(chunk)) > 2;
+            }
 
+            /**
+             * Works the edges at the given position out again from its events, skipping the lines taken out
+             */
+            private void sweep(int key) {
+                int[] keyEdges = new int[0];
+                int edgeCount = 0;
+
+                int first = -1;
+                int last = -1;
+                int count = 0;
+                for (int event : events[key]) {
+                    int chunk = event >>> 1;
+                    if (removedLines.get(chunkLines[chunk])) {
+                        continue;
+                    }
+
+                    boolean interruption = (event & 1) != 0;
+                    if (!interruption) {
+                        if (count == 0) {
+                            first = chunk;
+                        }
+                        last = chunk;
+                        count++;
+                        continue;
+                    }
+
+                    if (count >= REQUIRED_TEXT_LINES_FOR_EDGE) {
+                        keyEdges = Arrays.copyOf(keyEdges, (edgeCount + 1) * 3);
+                        keyEdges[edgeCount * 3] = first;
+                        keyEdges[edgeCount * 3 + 1] = last;
+                        keyEdges[edgeCount * 3 + 2] = count;
+                        edgeCount++;
+                    }
+                    count = 0;
+                }
+
+                // the edge still going at the end of the page
+                if (count >= REQUIRED_TEXT_LINES_FOR_EDGE) {
+                    keyEdges = Arrays.copyOf(keyEdges, (edgeCount + 1) * 3);
+                    keyEdges[edgeCount * 3] = first;
+                    keyEdges[edgeCount * 3 + 1] = last;
+                    keyEdges[edgeCount * 3 + 2] = count;
+                }
+
+                edges[key] = keyEdges;
+            }
+
+            /**
+             * Sweeps the positions the chunks of the given lines were at or crossed again
+             */
+            void update(BitSet newlyRemovedLines) {
+                BitSet changedKeys = new BitSet(keys.length);
+                for (int line = newlyRemovedLines.nextSetBit(0); line >= 0; line = newlyRemovedLines.nextSetBit(line + 1)) {
+                    for (int chunk = lineChunkStarts[line]; chunk < lineChunkStarts[line + 1]; chunk++) {
+                        changedKeys.set(Arrays.binarySearch(keys, keyOf(chunk)));
+                        int firstCrossedKey = firstCrossedKey(chunk);
+                        int lastCrossedKey = lastCrossedKey(chunk);
+                        if (firstCrossedKey <= lastCrossedKey) {
+                            changedKeys.set(firstCrossedKey, lastCrossedKey + 1);
+                        }
+                    }
+                }
+
+                for (int key = changedKeys.nextSetBit(0); key >= 0; key = changedKeys.nextSetBit(key + 1)) {
+                    sweep(key);
+                }
+            }
+
+            List<TextEdge> getEdges() {
+                List<TextEdge> textEdges = new ArrayList<>();
+                for (int key = 0; key < keys.length; key++) {
+                    int[] keyEdges = edges[key];
+                    for (int i = 0; i < keyEdges.length; i += 3) {
+                        TextChunk first = chunks[keyEdges[i]];
+                        TextChunk last = chunks[keyEdges[i + 1]];
+
+                        TextEdge edge = new TextEdge(keys[key], first.getTop(), keys[key], last.getBottom());
+                        edge.intersectingTextRowCount = Math.min(keyEdges[i + 2], lines.size());
+                        textEdges.add(edge);
+                    }
+                }
+                return textEdges;
+            }
+        }
+
+        private static int[] distinctSorted(int[] values) {
+            int[] sorted = values.clone();
+            Arrays.sort(sorted);
+
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[count++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, count);
+        }
+    }
+
+    @Override
+    public List<Rectangle> detect(Page page) {
+        // the page keeps the tables found at each resolution, so rendering it again is only done for a new one; a
+        // page that couldn't be rendered gives null, which isn't kept
+        List<Rectangle> tables = page.getArtifact("rasterTableAreas", Arrays.asList(resolution, coarseResolution),
+                () -> {
+                    // get horizontal & vertical lines
+                    // we get these from an image of the PDF and not the PDF itself because sometimes there are
+                    // invisible PDF instructions that are interpreted incorrectly as visible elements - we really
+                    // want to capture what a person sees when they look at the PDF
+                    List<Ruling> horizontalRulings = new ArrayList<>();
+                    List<Ruling> verticalRulings = new ArrayList<>();
+                    try {
+                        this.findRulings(page, horizontalRulings, verticalRulings);
+                    } catch (IOException e) {
+                        return null;
+                    }
+
+                    return this.detect(page, horizontalRulings, verticalRulings);
+                });
+
+        return tables == null ? new ArrayList<Rectangle>() : copiesOf(tables);
+    }
+
+    /**
+     * Copies of the tables the page keeps, which are shared and mustn't be modified
+     */
+    static List<Rectangle> copiesOf(List<Rectangle> tables) {
+        List<Rectangle> copies = new ArrayList<>(tables.size());
+        for (Rectangle table : tables) {
+            Rectangle copy = new Rectangle();
+            copy.setRect(table);
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Finds the tables on the page given its horizontal and vertical edges, in pixels at
+     * {@link #DEFAULT_RESOLUTION}. The rulings are modified.
+     */
+    List<Rectangle> detect(Page page, List<Ruling> horizontalRulings, List<Ruling> verticalRulings) {
         List<Ruling> allEdges = new ArrayList<>(horizontalRulings);
         allEdges.addAll(verticalRulings);
 
@@ -194,8 +525,7 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         }
 
         // now look at text rows to help us find more tables and flesh out existing ones
-        List<TextChunk> textChunks = TextElement.mergeWords(page.getText());
-        List<Line> lines = TextChunk.groupByLines(textChunks);
+        List<Line> lines = page.getTextLines();
 
         // first look for text rows that intersect an existing table - those lines should probably be part of the table
         for (Line textRow : lines) {
@@ -233,23 +563,22 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         // part of a table.
 
         boolean foundTable;
+        TextEdgeIndex textEdgeIndex = new TextEdgeIndex(lines);
+        List<Rectangle> newTables = new ArrayList<>(tableAreas);
 
         do {
             foundTable = false;
 
-            // get rid of any text lines contained within existing tables, this allows us to find more tables
-            for (Iterator<Line> iterator = lines.iterator(); iterator.hasNext(); ) {
-                Line textRow = iterator.next();
-                for (Rectangle table : tableAreas) {
-                    if (table.contains(textRow)) {
-                        iterator.remove();
-                        break;
-                    }
-                }
+            // get rid of any text lines contained within the tables found since last time, this allows us to find
+            // more tables; only the edges those lines were part of or crossed need to be worked out again
+            for (Rectangle table : newTables) {
+                textEdgeIndex.removeLinesContainedIn(table);
             }
+            newTables.clear();
+            lines = textEdgeIndex.getLines();
 
             // get text edges from remaining lines in the document
-            TextEdges textEdges = this.getTextEdges(lines);
+            TextEdges textEdges = textEdgeIndex.getTextEdges();
             List<TextEdge> leftTextEdges = textEdges.get(TextEdge.LEFT);
             List<TextEdge> midTextEdges = textEdges.get(TextEdge.MID);
             List<TextEdge> rightTextEdges = textEdges.get(TextEdge.RIGHT);
@@ -277,40 +606,64 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
                 if (table != null) {
                     foundTable = true;
                     tableAreas.add(table);
+                    newTables.add(table);
                 }
             }
         } while (foundTable);
 
-        // create a set of our current tables that will eliminate duplicate tables
-        Set<Rectangle> tableSet = new TreeSet<>(new Comparator<Rectangle>() {
-            @Override
-            public int compare(Rectangle o1, Rectangle o2) {
-                if (o1.equals(o2)) {
-                    return 0;
-                }
+        return this.removeDuplicateTables(tableAreas);
+    }
 
-                // o1 is "equal" to o2 if o2 contains all of o1
-                if (o2.contains(o1)) {
-                    return 0;
-                }
+    /**
+     * Drops the tables that are the same as, contain, are contained in or mostly overlap a table that comes before
+     * them in the list
+     */
+    List<Rectangle> removeDuplicateTables(List<Rectangle> tableAreas) {
+        List<Rectangle> tables = new ArrayList<>();
+
+        // the tables kept so far by the buckets of the page they cover, so each table is only compared with the
+        // ones near it
+        Map<Long, List<Rectangle>> tableBuckets = new HashMap<>();
+
+        for (Rectangle table : tableAreas) {
+            int fromX = bucketOf(table.getLeft(), TABLE_BUCKET_SIZE);
+            int toX = bucketOf(table.getRight(), TABLE_BUCKET_SIZE);
+            int fromY = bucketOf(table.getTop(), TABLE_BUCKET_SIZE);
+            int toY = bucketOf(table.getBottom(), TABLE_BUCKET_SIZE);
+
+            boolean duplicate = false;
+
+            duplicateCheck:
+            for (int x = fromX; x <= toX; x++) {
+                for (int y = fromY; y <= toY; y++) {
+                    List<Rectangle> nearbyTables = tableBuckets.get(bucketKey(x, y));
+                    if (nearbyTables == null) {
+                        continue;
+                    }
 
-                if (o1.contains(o2)) {
-                    return 0;
+                    for (Rectangle other : nearbyTables) {
+                        if (table.equals(other) || other.contains(table) || table.contains(other)
+                                || table.overlapRatio(other) >= IDENTICAL_TABLE_OVERLAP_RATIO) {
+                            duplicate = true;
+                            break duplicateCheck;
+                        }
+                    }
                 }
+            }
 
-                // otherwise see if these tables are "mostly" the same
-                float overlap = o1.overlapRatio(o2);
-                if (overlap >= IDENTICAL_TABLE_OVERLAP_RATIO) {
-                    return 0;
-                } else {
-                    return 1;
-                }
+            if (duplicate) {
+                continue;
             }
-        });
 
-        tableSet.addAll(tableAreas);
+            tables.add(table);
+            for (int x = fromX; x <= toX; x++) {
+                for (int y = fromY; y <= toY; y++) {
+                    tableBuckets.computeIfAbsent(bucketKey(x, y), k -> new ArrayList<>()).add(table);
+                }
+            }
+        }
 
-        return new ArrayList<>(tableSet);
+        return tables;
     }
 
     private Rectangle getTableFromText(List<Line> lines,
@@ -506,147 +859,54 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         return new RelevantEdges(relevantEdgeType, relevantEdgeCount);
     }
 
-    private TextEdges getTextEdges(List<Line> lines) {
-
-        // get all text edges (lines that align with the left, middle and right of chunks of text) that extend
-        // uninterrupted over at least REQUIRED_TEXT_LINES_FOR_EDGE lines of text
-        List<TextEdge> leftTextEdges = new ArrayList<>();
-        List<TextEdge> midTextEdges = new ArrayList<>();
-        List<TextEdge> rightTextEdges = new ArrayList<>();
-
-        Map<Integer, List<TextChunk>> currLeftEdges = new HashMap<>();
-        Map<Integer, List<TextChunk>> currMidEdges = new HashMap<>();
-        Map<Integer, List<TextChunk>> currRightEdges = new HashMap<>();
-
-
-        int numOfLines = lines.size();
-        for (Line textRow : lines) {
-            for (TextChunk text : textRow.getTextElements()) {
-                Integer left = (int) Math.floor(text.getLeft());
-                Integer right = (int) Math.floor(text.getRight());
-                Integer mid = left + ((right - left) / 2);
-
-                // first put this chunk into any edge buckets it belongs to
-                List<TextChunk> leftEdge = currLeftEdges.computeIfAbsent(left, k -> new ArrayList<>());
-                leftEdge.add(text);
-
-                List<TextChunk> midEdge = currMidEdges.computeIfAbsent(mid, k -> new ArrayList<>());
-                midEdge.add(text);
-
-                List<TextChunk> rightEdge = currRightEdges.computeIfAbsent(right, k -> new ArrayList<>());
-                rightEdge.add(text);
-
-                // now see if this text chunk blows up any other edges
-                leftTextEdges.addAll(
-                        calculateExtendedEdges(numOfLines, currLeftEdges, left, right)
-                );
-
-                midTextEdges.addAll(
-                        calculateExtendedEdges(numOfLines, currMidEdges, left, right, mid, 2)
-                );
-
-                rightTextEdges.addAll(
-                        calculateExtendedEdges(numOfLines, currRightEdges, left, right)
-                );
-            }
-        }
-
-        // add the leftovers
-        leftTextEdges.addAll(
-                calculateLeftoverEdges(numOfLines, currLeftEdges)
-        );
-
-        midTextEdges.addAll(
-                calculateLeftoverEdges(numOfLines, currMidEdges)
-        );
-
-        rightTextEdges.addAll(
-                calculateLeftoverEdges(numOfLines, currRightEdges)
-        );
-
-        return new TextEdges(leftTextEdges, midTextEdges, rightTextEdges);
-    }
-
-    private Set<TextEdge> calculateLeftoverEdges(int numOfLines, Map<Integer, List<TextChunk>> currDirectedEdges) {
-        Set<TextEdge> leftoverEdges = new HashSet<>();
-        for (Integer key : currDirectedEdges.keySet()) {
-            List<TextChunk> edgeChunks = currDirectedEdges.get(key);
-            if (edgeChunks.size() >= REQUIRED_TEXT_LINES_FOR_EDGE) {
-                TextEdge edge = getEdgeFromChunks(numOfLines, key, edgeChunks);
-
-                leftoverEdges.add(edge);
-            }
-        }
-        return leftoverEdges;
-    }
-
-    private TextEdge getEdgeFromChunks(int numOfLines, Integer key, List<TextChunk> edgeChunks) {
-        TextChunk first = edgeChunks.get(0);
-        TextChunk last = edgeChunks.get(edgeChunks.size() - 1);
-
-        TextEdge edge = new TextEdge(key, first.getTop(), key, last.getBottom());
-        edge.intersectingTextRowCount = Math.min(edgeChunks.size(), numOfLines);
-        return edge;
-    }
-
-
-    private Collection<TextEdge> calculateExtendedEdges(Integer numOfLines, Map<Integer, List<TextChunk>> currDirectedEdges, Integer left, Integer right) {
-        return calculateExtendedEdges(numOfLines, currDirectedEdges, left, right, null, null);
-    }
-
-    private Collection<TextEdge> calculateExtendedEdges(Integer numOfLines, Map<Integer, List<TextChunk>> currDirectedEdges, Integer left, Integer right, Integer mid, Integer minDistToMid) {
-        Set<TextEdge> extendedEdges = new HashSet<>();
-        Iterator<Map.Entry<Integer, List<TextChunk>>> edgeIterator = currDirectedEdges.entrySet().iterator();
-        while (edgeIterator.hasNext()) {
-            Map.Entry<Integer, List<TextChunk>> entry = edgeIterator.next();
-            Integer key = entry.getKey();
-
-            // if mid and minDistToMid are set, we calculate if the distance to mid is actually above,
-            // otherwise we ignore it
-            boolean hasMinDistToMid = mid == null || minDistToMid == null || Math.abs(key - mid) > minDistToMid;
-
-            if (key > left && key < right && hasMinDistToMid) {
-                edgeIterator.remove();
-                List<TextChunk> edgeChunks = entry.getValue();
-                if (edgeChunks.size() >= REQUIRED_TEXT_LINES_FOR_EDGE) {
-                    TextEdge edge = getEdgeFromChunks(numOfLines, key, edgeChunks);
-                    extendedEdges.add(edge);
-                }
-            }
-        }
-        return extendedEdges;
-    }
+    List<Rectangle> getTableAreasFromCells(List<? extends Rectangle> cells) {
+        // cells that have a corner close to a corner of another cell are in the same group as it; corners are put in
+        // buckets the size of that distance, so we only need to look for close corners in neighbouring buckets
+        int[] parents = new int[cells.size()];
+        Point2D[][] corners = new Point2D[cells.size()][];
+        Map<Long, List<Integer>> cornerBuckets = new HashMap<>();
+
+        for (int cell = 0; cell < cells.size(); cell++) {
+            parents[cell] = cell;
+            corners[cell] = cells.get(cell).getPoints();
+
+            for (Point2D corner : corners[cell]) {
+                int bucketX = bucketOf(corner.getX(), CELL_CORNER_DISTANCE_MAXIMUM);
+                int bucketY = bucketOf(corner.getY(), CELL_CORNER_DISTANCE_MAXIMUM);
+
+                for (int x = bucketX - 1; x <= bucketX + 1; x++) {
+                    for (int y = bucketY - 1; y <= bucketY + 1; y++) {
+                        List<Integer> nearbyCells = cornerBuckets.get(bucketKey(x, y));
+                        if (nearbyCells == null) {
+                            continue;
+                        }
 
-    private List<Rectangle> getTableAreasFromCells(List<? extends Rectangle> cells) {
-        List<List<Rectangle>> cellGroups = new ArrayList<>();
-        for (Rectangle cell : cells) {
-            boolean addedToGroup = false;
-
-            cellCheck:
-            for (List<Rectangle> cellGroup : cellGroups) {
-                for (Rectangle groupCell : cellGroup) {
-                    Point2D[] groupCellCorners = groupCell.getPoints();
-                    Point2D[] candidateCorners = cell.getPoints();
-
-                    for (Point2D candidateCorner : candidateCorners) {
-                        for (Point2D groupCellCorner : groupCellCorners) {
-                            if (candidateCorner.distance(groupCellCorner) < CELL_CORNER_DISTANCE_MAXIMUM) {
-                                cellGroup.add(cell);
-                                addedToGroup = true;
-                                break cellCheck;
+                        for (int other : nearbyCells) {
+                            if (other != cell && isCloseToAny(corner, corners[other])) {
+                                union(parents, cell, other);
                             }
                         }
                     }
                 }
             }
 
-            if (!addedToGroup) {
-                ArrayList<Rectangle> cellGroup = new ArrayList<>();
-                cellGroup.add(cell);
-                cellGroups.add(cellGroup);
+            for (Point2D corner : corners[cell]) {
+                List<Integer> bucketCells = cornerBuckets.computeIfAbsent(bucketKey(
+                        bucketOf(corner.getX(), CELL_CORNER_DISTANCE_MAXIMUM),
+                        bucketOf(corner.getY(), CELL_CORNER_DISTANCE_MAXIMUM)), k -> new ArrayList<>());
+                if (bucketCells.isEmpty() || bucketCells.get(bucketCells.size() - 1) != cell) {
+                    bucketCells.add(cell);
+                }
             }
         }
 
+        // groups are in the order of their first cell, which is also their root
+        Map<Integer, List<Rectangle>> groupsByRoot = new LinkedHashMap<>();
+        for (int cell = 0; cell < cells.size(); cell++) {
+            groupsByRoot.computeIfAbsent(find(parents, cell), k -> new ArrayList<>()).add(cells.get(cell));
+        }
+        Collection<List<Rectangle>> cellGroups = groupsByRoot.values();
+
         // create table areas based on cell group
         List<Rectangle> tableAreas = new ArrayList<>();
         for (List<Rectangle> cellGroup : cellGroups) {
@@ -673,162 +933,353 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         return tableAreas;
     }
 
-    private List<Ruling> getHorizontalRulings(BufferedImage image) {
-
-        // get all horizontal edges, which we'll define as a change in grayscale colour
-        // along a straight line of a certain length
-        ArrayList<Ruling> horizontalRulings = new ArrayList<>();
+    private static boolean isCloseToAny(Point2D corner, Point2D[] otherCorners) {
+        for (Point2D otherCorner : otherCorners) {
+            if (corner.distance(otherCorner) < CELL_CORNER_DISTANCE_MAXIMUM) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        Raster r = image.getRaster();
-        int width = r.getWidth();
-        int height = r.getHeight();
+    /**
+     * Finds the root of the group of the given cell, pointing the cells on the way at their grandparents
+     */
+    private static int find(int[] parents, int cell) {
+        while (parents[cell] != cell) {
+            parents[cell] = parents[parents[cell]];
+            cell = parents[cell];
+        }
+        return cell;
+    }
 
-        for (int x = 0; x < width; x++) {
+    /**
+     * Merges the groups of two cells, keeping the lower root so that a group's root is always its first cell
+     */
+    private static void union(int[] parents, int cell, int other) {
+        int root = find(parents, cell);
+        int otherRoot = find(parents, other);
+        if (root < otherRoot) {
+            parents[otherRoot] = root;
+        } else {
+            parents[root] = otherRoot;
+        }
+    }
 
-            int[] lastPixel = r.getPixel(x, 0, (int[]) null);
+    private static int bucketOf(double coordinate, float bucketSize) {
+        return (int) Math.floor(coordinate / bucketSize);
+    }
 
-            for (int y = 1; y < height - 1; y++) {
+    private static long bucketKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
 
-                int[] currPixel = r.getPixel(x, y, (int[]) null);
+    /**
+     * Finds the horizontal and vertical edges on the page, in pixels at {@link #DEFAULT_RESOLUTION}
+     */
+    private void findRulings(Page page, List<Ruling> horizontalRulings, List<Ruling> verticalRulings) throws IOException {
+        DetectionRenderer renderer = new DetectionRenderer(page.getPDDoc());
+        PDPage pdfPage = page.getPDPage();
+        int pageIndex = page.getPageNumber() - 1;
+        float scale = (float) DEFAULT_RESOLUTION / resolution;
+        float horizontalMinimum = (float) HORIZONTAL_EDGE_WIDTH_MINIMUM / scale;
+        float verticalMinimum = (float) VERTICAL_EDGE_HEIGHT_MINIMUM / scale;
+
+        List<java.awt.Rectangle> regions = null;
+        Area clip = null;
+        if (coarseResolution != 0) {
+            // look for candidate edges at the coarse resolution, being lenient about how dark and long they are
+            DetectionRenderer.PageImages coarseImages = renderer.renderImages(pageIndex, coarseResolution);
+            float coarseScale = (float) resolution / coarseResolution;
+
+            int coarseHeight = coarseImages.withText.getHeight();
+            RasterEdgeDetector coarseDetector = new RasterEdgeDetector(coarseImages.withText.getWidth(), coarseHeight,
+                    coarseIntensityThreshold(coarseScale),
+                    coarseEdgeLengthMinimum(horizontalMinimum, coarseScale),
+                    coarseEdgeLengthMinimum(verticalMinimum, coarseScale));
+            coarseDetector.scanEdges(coarseImages.withText, coarseImages.withoutText, 0, 0, coarseHeight);
+
+            List<Ruling> candidates = new ArrayList<>(coarseDetector.getHorizontalRulings());
+            candidates.addAll(coarseDetector.getVerticalRulings());
+
+            // then draw only the regions around them at full resolution, and find the actual edges there
+            regions = this.getCandidateRegions(candidates, coarseScale);
+            clip = new Area();
+            for (java.awt.Rectangle region : regions) {
+                clip.add(new Area(region));
+            }
+        }
 
-                int diff = Math.abs(currPixel[0] - lastPixel[0]);
-                if (diff > GRAYSCALE_INTENSITY_THRESHOLD) {
-                    // we hit what could be a line
-                    // don't bother scanning it if we've hit a pixel in the line before
-                    boolean alreadyChecked = false;
-                    for (Line2D.Float line : horizontalRulings) {
-                        if (y == line.getY1() && x >= line.getX1() && x <= line.getX2()) {
-                            alreadyChecked = true;
-                            break;
-                        }
-                    }
+        Dimension imageSize = DetectionRenderer.getImageSize(pdfPage, resolution);
 
-                    if (alreadyChecked) {
-                        lastPixel = currPixel;
-                        continue;
-                    }
+        if (regions != null) {
+            this.scanRegions(renderer, pageIndex, regions, clip, imageSize, horizontalMinimum, verticalMinimum,
+                    horizontalRulings, verticalRulings);
+        } else if ((long) imageSize.width * imageSize.height > MAXIMUM_IMAGE_PIXELS) {
+            // too big to render in one go, go strip by strip so memory use doesn't grow with the page size
+            RasterEdgeDetector detector = new RasterEdgeDetector(imageSize.width, imageSize.height,
+                    GRAYSCALE_INTENSITY_THRESHOLD, horizontalMinimum, verticalMinimum);
+            this.scanStrips(renderer, pageIndex, clip, imageSize, detector);
 
-                    int lineX = x + 1;
-
-                    while (lineX < width) {
-                        int[] linePixel = r.getPixel(lineX, y, (int[]) null);
-                        int[] abovePixel = r.getPixel(lineX, y - 1, (int[]) null);
+            horizontalRulings.addAll(detector.getHorizontalRulings());
+            verticalRulings.addAll(detector.getVerticalRulings());
+        } else {
+            DetectionRenderer.PageImages images = renderer.renderImages(pageIndex, resolution);
+            RasterEdgeDetector detector = new RasterEdgeDetector(imageSize.width, imageSize.height,
+                    GRAYSCALE_INTENSITY_THRESHOLD, horizontalMinimum, verticalMinimum);
 
-                        if (Math.abs(linePixel[0] - abovePixel[0]) <= GRAYSCALE_INTENSITY_THRESHOLD
-                                || Math.abs(currPixel[0] - linePixel[0]) > GRAYSCALE_INTENSITY_THRESHOLD) {
-                            break;
-                        }
+            // vertical lines are looked for without the text, to make things less confusing
+            detector.scanEdges(images.withText, images.withoutText, 0, 0, imageSize.height);
 
-                        lineX++;
-                    }
+            horizontalRulings.addAll(detector.getHorizontalRulings());
+            verticalRulings.addAll(detector.getVerticalRulings());
+        }
 
-                    int endX = lineX - 1;
-                    int lineWidth = endX - x;
-                    if (lineWidth > HORIZONTAL_EDGE_WIDTH_MINIMUM) {
-                        horizontalRulings.add(new Ruling(new Point2D.Float(x, y), new Point2D.Float(endX, y)));
-                    }
+        if (resolution != DEFAULT_RESOLUTION) {
+            for (List<Ruling> rulings : Arrays.asList(horizontalRulings, verticalRulings)) {
+                for (Ruling ruling : rulings) {
+                    ruling.setLine(ruling.x1 * scale, ruling.y1 * scale, ruling.x2 * scale, ruling.y2 * scale);
                 }
-
-                lastPixel = currPixel;
             }
         }
-
-        return horizontalRulings;
     }
 
-    private List<Ruling> getVerticalRulings(BufferedImage image) {
-
-        // get all vertical edges, which we'll define as a change in grayscale colour
-        // along a straight line of a certain length
-        ArrayList<Ruling> verticalRulings = new ArrayList<>();
+    /**
+     * The intensity difference an edge needs at the coarse resolution. A line one pixel wide at full resolution
+     * covers only {@code 1 / coarseScale} of a coarse pixel, which is that much less dark than the line, so the
+     * threshold is lowered by as much.
+     */
+    private static int coarseIntensityThreshold(float coarseScale) {
+        return Math.max(1, Math.round(GRAYSCALE_INTENSITY_THRESHOLD / coarseScale));
+    }
 
-        Raster r = image.getRaster();
-        int width = r.getWidth();
-        int height = r.getHeight();
+    /**
+     * The length, in coarse pixels, an edge needs at the coarse resolution to be as long as {@code minimum} full
+     * resolution pixels, less the pixels it may lose at its ends
+     */
+    private static float coarseEdgeLengthMinimum(float minimum, float coarseScale) {
+        return minimum / coarseScale - 2 * COARSE_EDGE_END_LOSS;
+    }
 
-        for (int y = 0; y < height; y++) {
+    /**
+     * Renders the page in horizontal strips, drawing only what falls within the clip if it's not null, and looks
+     * for edges in each of them. The page's content is interpreted again for each strip, see
+     * {@link DetectionRenderer#renderStrip}.
+     */
+    private void scanStrips(DetectionRenderer renderer, int pageIndex, Area clip, Dimension imageSize,
+                            RasterEdgeDetector detector) throws IOException {
+        int stripHeight = Math.max(1, STRIP_IMAGE_PIXELS / imageSize.width);
+
+        for (int fromY = 0; fromY < imageSize.height; fromY += stripHeight) {
+            int toY = Math.min(fromY + stripHeight, imageSize.height);
+
+            // strips overlap by the few rows edge detection looks at past them
+            int top = Math.max(0, fromY - detector.getRowsNeededAbove());
+            int bottom = Math.min(imageSize.height, toY + detector.getRowsNeededBelow());
+
+            BufferedImage withText = STRIP_BUFFERS.acquire(imageSize.width, bottom - top);
+            BufferedImage withoutText = STRIP_BUFFERS.acquire(imageSize.width, bottom - top);
+            try {
+                renderer.renderStrip(pageIndex, resolution, clip, top, withText, withoutText);
+                detector.scanEdges(withText, withoutText, top, fromY, toY);
+            } finally {
+                STRIP_BUFFERS.release(withText);
+                STRIP_BUFFERS.release(withoutText);
+            }
+        }
+    }
 
-            int[] lastPixel = r.getPixel(0, y, (int[]) null);
+    /**
+     * Looks for edges in each of the regions, in pixels at the resolution, drawing only what falls within the clip.
+     *
+     * The rows the regions are in are rendered in strips of about STRIP_IMAGE_PIXELS, each taking in as many whole
+     * regions as fit, so a page whose regions fit in one strip is rendered in one pass over its content, and rows
+     * without any region aren't rendered at all. The strips are as wide as the page, but only the pixels of the
+     * regions are scanned.
+     */
+    private void scanRegions(DetectionRenderer renderer, int pageIndex, List<java.awt.Rectangle> regions, Area clip,
+                             Dimension imageSize, float horizontalMinimum, float verticalMinimum,
+                             List<Ruling> horizontalRulings, List<Ruling> verticalRulings) throws IOException {
+        java.awt.Rectangle imageBounds = new java.awt.Rectangle(imageSize);
+        List<java.awt.Rectangle> regionsOnPage = new ArrayList<>(regions.size());
+        for (java.awt.Rectangle region : regions) {
+            region = region.intersection(imageBounds);
+            if (!region.isEmpty()) {
+                regionsOnPage.add(region);
+            }
+        }
+        if (regionsOnPage.isEmpty()) {
+            return;
+        }
+        // top to bottom, so a strip only has to look at the regions from the first one it hasn't finished
+        regionsOnPage.sort(Comparator.comparingInt(region -> region.y));
+
+        RasterEdgeDetector[] detectors = new RasterEdgeDetector[regionsOnPage.size()];
+        for (int i = 0; i < detectors.length; i++) {
+            java.awt.Rectangle region = regionsOnPage.get(i);
+            detectors[i] = new RasterEdgeDetector(region.width, region.height,
+                    GRAYSCALE_INTENSITY_THRESHOLD, horizontalMinimum, verticalMinimum);
+        }
+        int rowsNeededAbove = detectors[0].getRowsNeededAbove();
+        int rowsNeededBelow = detectors[0].getRowsNeededBelow();
+
+        int stripHeight = Math.max(1, STRIP_IMAGE_PIXELS / imageSize.width);
+        List<int[]> rowRanges = getRowRanges(regionsOnPage);
+        int range = 0;
+        int fromY = rowRanges.get(0)[0];
+        int firstUnfinishedRegion = 0;
+        while (range < rowRanges.size()) {
+            int toY = Math.min(rowRanges.get(range)[1], fromY + stripHeight);
+            if (toY == rowRanges.get(range)[1]) {
+                // take in the next ranges as long as the strip stays within its height
+                range++;
+                while (range < rowRanges.size() && rowRanges.get(range)[1] - fromY <= stripHeight) {
+                    toY = rowRanges.get(range)[1];
+                    range++;
+                }
+            }
 
-            for (int x = 1; x < width - 1; x++) {
+            // strips overlap by the few rows edge detection looks at past them
+            int top = Math.max(0, fromY - rowsNeededAbove);
+            int bottom = Math.min(imageSize.height, toY + rowsNeededBelow);
 
-                int[] currPixel = r.getPixel(x, y, (int[]) null);
+            BufferedImage withText = STRIP_BUFFERS.acquire(imageSize.width, bottom - top);
+            BufferedImage withoutText = STRIP_BUFFERS.acquire(imageSize.width, bottom - top);
+            try {
+                renderer.renderStrip(pageIndex, resolution, clip, top, withText, withoutText);
 
-                int diff = Math.abs(currPixel[0] - lastPixel[0]);
-                if (diff > GRAYSCALE_INTENSITY_THRESHOLD) {
-                    // we hit what could be a line
-                    // don't bother scanning it if we've hit a pixel in the line before
-                    boolean alreadyChecked = false;
-                    for (Line2D.Float line : verticalRulings) {
-                        if (x == line.getX1() && y >= line.getY1() && y <= line.getY2()) {
-                            alreadyChecked = true;
-                            break;
-                        }
+                for (int i = firstUnfinishedRegion; i < detectors.length; i++) {
+                    java.awt.Rectangle region = regionsOnPage.get(i);
+                    if (region.y >= toY) {
+                        break;
                     }
-
-                    if (alreadyChecked) {
-                        lastPixel = currPixel;
+                    int regionFromY = Math.max(fromY, region.y);
+                    int regionToY = Math.min(toY, region.y + region.height);
+                    if (regionFromY >= regionToY) {
                         continue;
                     }
 
-                    int lineY = y + 1;
-
-                    while (lineY < height) {
-                        int[] linePixel = r.getPixel(x, lineY, (int[]) null);
-                        int[] leftPixel = r.getPixel(x - 1, lineY, (int[]) null);
-
-                        if (Math.abs(linePixel[0] - leftPixel[0]) <= GRAYSCALE_INTENSITY_THRESHOLD
-                                || Math.abs(currPixel[0] - linePixel[0]) > GRAYSCALE_INTENSITY_THRESHOLD) {
-                            break;
-                        }
-
-                        lineY++;
-                    }
+                    // in the region's own pixels
+                    int imageTop = Math.max(top, region.y);
+                    int imageBottom = Math.min(bottom, region.y + region.height);
+                    detectors[i].scanEdges(
+                            withText.getSubimage(region.x, imageTop - top, region.width, imageBottom - imageTop),
+                            withoutText.getSubimage(region.x, imageTop - top, region.width, imageBottom - imageTop),
+                            imageTop - region.y, regionFromY - region.y, regionToY - region.y);
+                }
+            } finally {
+                STRIP_BUFFERS.release(withText);
+                STRIP_BUFFERS.release(withoutText);
+            }
 
-                    int endY = lineY - 1;
-                    int lineLength = endY - y;
-                    if (lineLength > VERTICAL_EDGE_HEIGHT_MINIMUM) {
-                        verticalRulings.add(new Ruling(new Point2D.Float(x, y), new Point2D.Float(x, endY)));
-                    }
+            while (firstUnfinishedRegion < detectors.length) {
+                java.awt.Rectangle region = regionsOnPage.get(firstUnfinishedRegion);
+                if (region.y + region.height > toY) {
+                    break;
                 }
+                firstUnfinishedRegion++;
+            }
+            if (range < rowRanges.size()) {
+                fromY = Math.max(toY, rowRanges.get(range)[0]);
+            }
+        }
 
-                lastPixel = currPixel;
+        for (int i = 0; i < detectors.length; i++) {
+            java.awt.Rectangle region = regionsOnPage.get(i);
+            for (Ruling ruling : detectors[i].getHorizontalRulings()) {
+                horizontalRulings.add(translate(ruling, region.x, region.y));
+            }
+            for (Ruling ruling : detectors[i].getVerticalRulings()) {
+                verticalRulings.add(translate(ruling, region.x, region.y));
             }
         }
 
-        return verticalRulings;
+        // keep the order a single pass over the page finds them in
+        horizontalRulings.sort(RasterEdgeDetector.COLUMN_MAJOR_ORDER);
+        verticalRulings.sort(RasterEdgeDetector.ROW_MAJOR_ORDER);
+    }
+
+    /**
+     * The ranges of rows [from, to) the regions, sorted by their top, are in, top to bottom
+     */
+    private static List<int[]> getRowRanges(List<java.awt.Rectangle> regions) {
+        List<int[]> rowRanges = new ArrayList<>();
+        int[] rows = null;
+        for (java.awt.Rectangle region : regions) {
+            if (rows == null || region.y > rows[1]) {
+                rows = new int[]{region.y, region.y + region.height};
+                rowRanges.add(rows);
+            } else {
+                rows[1] = Math.max(rows[1], region.y + region.height);
+            }
+        }
+        return rowRanges;
     }
 
+    /**
+     * Returns the padded bounding boxes of the given coarse edges, in full resolution pixels, merging the ones
+     * that overlap so that no pixel is looked at twice
+     */
+    private List<java.awt.Rectangle> getCandidateRegions(List<Ruling> candidates, float coarseScale) {
+        List<java.awt.Rectangle> regions = new ArrayList<>(candidates.size());
+
+        for (Ruling candidate : candidates) {
+            int left = (int) Math.floor((candidate.x1 - CANDIDATE_REGION_PADDING) * coarseScale);
+            int top = (int) Math.floor((candidate.y1 - CANDIDATE_REGION_PADDING) * coarseScale);
+            int right = (int) Math.ceil((candidate.x2 + 1 + CANDIDATE_REGION_PADDING) * coarseScale);
+            int bottom = (int) Math.ceil((candidate.y2 + 1 + CANDIDATE_REGION_PADDING) * coarseScale);
+            regions.add(new java.awt.Rectangle(left, top, right - left, bottom - top));
+        }
+
+        // a merged region can overlap regions none of the ones it was merged from did, so merge until none overlap
+        int regionCount;
+        do {
+            regionCount = regions.size();
+            regions = mergeOverlappingRegions(regions);
+        } while (regions.size() < regionCount);
 
-    // taken from http://www.docjar.com/html/api/org/apache/pdfbox/examples/util/RemoveAllText.java.html
-    private PDDocument removeText(PDPage page) throws IOException {
+        return regions;
+    }
 
-        PDFStreamParser parser = new PDFStreamParser(page);
-        parser.parse();
-        List<Object> tokens = parser.getTokens();
-        List<Object> newTokens = new ArrayList<>();
-        for (Object token : tokens) {
-            if (token instanceof Operator) {
-                Operator op = (Operator) token;
-                if (op.getName().equals("TJ") || op.getName().equals("Tj")) {
-                    //remove the one argument to this operator
-                    newTokens.remove(newTokens.size() - 1);
-                    continue;
+    /**
+     * Merges each group of regions that overlap one another into the group's bounding box. Regions are put in
+     * buckets, so each one is only compared with the ones near it.
+     */
+    static List<java.awt.Rectangle> mergeOverlappingRegions(List<java.awt.Rectangle> regions) {
+        int[] parents = new int[regions.size()];
+        Map<Long, List<Integer>> regionBuckets = new HashMap<>();
+
+        for (int region = 0; region < regions.size(); region++) {
+            parents[region] = region;
+            java.awt.Rectangle bounds = regions.get(region);
+            int fromX = bucketOf(bounds.x, CANDIDATE_REGION_BUCKET_SIZE);
+            int toX = bucketOf(bounds.x + bounds.width - 1, CANDIDATE_REGION_BUCKET_SIZE);
+            int fromY = bucketOf(bounds.y, CANDIDATE_REGION_BUCKET_SIZE);
+            int toY = bucketOf(bounds.y + bounds.height - 1, CANDIDATE_REGION_BUCKET_SIZE);
+
+            for (int x = fromX; x <= toX; x++) {
+                for (int y = fromY; y <= toY; y++) {
+                    List<Integer> bucketRegions = regionBuckets.computeIfAbsent(bucketKey(x, y), k -> new ArrayList<>());
+                    for (int other : bucketRegions) {
+                        if (regions.get(other).intersects(bounds)) {
+                            union(parents, region, other);
+                        }
+                    }
+                    bucketRegions.add(region);
                 }
             }
-            newTokens.add(token);
         }
 
-        PDDocument document = new PDDocument();
-        PDPage newPage = document.importPage(page);
-        newPage.setResources(page.getResources());
+        // in the order of their first region, which is also their root
+        Map<Integer, java.awt.Rectangle> mergedByRoot = new LinkedHashMap<>();
+        for (int region = 0; region < regions.size(); region++) {
+            mergedByRoot.merge(find(parents, region), regions.get(region), java.awt.Rectangle::union);
+        }
+        return new ArrayList<>(mergedByRoot.values());
+    }
 
-        PDStream newContents = new PDStream(document);
-        OutputStream out = newContents.createOutputStream(COSName.FLATE_DECODE);
-        ContentStreamWriter writer = new ContentStreamWriter(out);
-        writer.writeTokens(newTokens);
-        out.close();
-        newPage.setContents(newContents);
-        return document;
+    private static Ruling translate(Ruling ruling, int dx, int dy) {
+        ruling.setLine(ruling.x1 + dx, ruling.y1 + dy, ruling.x2 + dx, ruling.y2 + dy);
+        return ruling;
     }
 }
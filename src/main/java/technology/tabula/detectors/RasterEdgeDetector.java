@@ -0,0 +1,400 @@
+package technology.tabula.detectors;
+
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import technology.tabula.Ruling;
+
+/**
+ * Finds the horizontal and vertical edges in an image of a page, which we'll define as a change in grayscale
+ * colour along a straight line of a certain length.
+ *
+ * The image can be scanned in one go, or in horizontal strips from top to bottom so that the whole of it never has
+ * to be in memory. Vertical edges that cross strips are followed from one strip to the next, so the edges found
+ * are the same either way. Not thread safe, but scans large strips in parallel on the common fork-join pool.
+ */
+final class RasterEdgeDetector {
+
+    // the order horizontal edges are found in when scanning the page column by column, top to bottom
+    static final Comparator<Ruling> COLUMN_MAJOR_ORDER = new Comparator<Ruling>() {
+        @Override
+        public int compare(Ruling r1, Ruling r2) {
+            int compareX = Float.compare(r1.x1, r2.x1);
+            return compareX != 0 ? compareX : Float.compare(r1.y1, r2.y1);
+        }
+    };
+
+    // the order vertical edges are found in when scanning the page row by row, left to right
+    static final Comparator<Ruling> ROW_MAJOR_ORDER = new Comparator<Ruling>() {
+        @Override
+        public int compare(Ruling r1, Ruling r2) {
+            int compareY = Float.compare(r1.y1, r2.y1);
+            return compareY != 0 ? compareY : Float.compare(r1.x1, r2.x1);
+        }
+    };
+
+    // marks a column whose vertical edge continues past the strips scanned so far
+    private static final int OPEN = Integer.MAX_VALUE;
+
+    // images are split into at most this many stripes of each kind, of at least this many pixels
+    private static final int PARALLELISM = ForkJoinPool.getCommonPoolParallelism();
+    private static final int STRIPE_PIXELS_MINIMUM = 1 << 18;
+
+    private final int width;
+    private final int height;
+    private final int intensityThreshold;
+    private final float minimumWidth;
+    private final float minimumHeight;
+
+    private final List<Ruling> horizontalRulings = new ArrayList<>();
+    private final List<Ruling> verticalRulings = new ArrayList<>();
+
+    // for each column, the last row covered by a vertical edge found so far; rulings in a column are found
+    // top to bottom, so a pixel has already been checked iff it's above that row
+    private final int[] lineEnds;
+    // for each column with an OPEN edge: the row it starts at, the intensity it started with and the next row
+    // to check
+    private final int[] openLineStarts;
+    private final int[] openLinePixels;
+    private final int[] openLineNextRows;
+
+    /**
+     * @param width              width of the whole image, in pixels
+     * @param height             height of the whole image, in pixels
+     * @param intensityThreshold how much the grayscale intensity has to change across an edge
+     * @param minimumWidth       horizontal edges have to be longer than this, in pixels
+     * @param minimumHeight      vertical edges have to be longer than this, in pixels
+     */
+    RasterEdgeDetector(int width, int height, int intensityThreshold, float minimumWidth, float minimumHeight) {
+        this.width = width;
+        this.height = height;
+        this.intensityThreshold = intensityThreshold;
+        this.minimumWidth = minimumWidth;
+        this.minimumHeight = minimumHeight;
+        this.lineEnds = new int[width];
+        this.openLineStarts = new int[width];
+        this.openLinePixels = new int[width];
+        this.openLineNextRows = new int[width];
+        Arrays.fill(this.lineEnds, -1);
+    }
+
+    /**
+     * The number of rows past the end of a strip that must be in the image it is scanned in: horizontal edges
+     * compare a row with the one above it, and vertical edges need to be long enough to be told apart from noise
+     * before moving on to the next strip.
+     */
+    int getRowsNeededBelow() {
+        return (int) Math.floor(minimumHeight) + 1;
+    }
+
+    int getRowsNeededAbove() {
+        return 1;
+    }
+
+    /**
+     * Finds the horizontal edges in rows [fromY, toY) of the whole image, and the vertical edges starting in them.
+     * Strips must be scanned in order, starting at row 0.
+     *
+     * Large strips are split into stripes that are scanned in parallel: rows for horizontal edges, which only
+     * depend on the row above, and columns for vertical edges, which only depend on the column to the left.
+     *
+     * @param withText    part of the whole image to find horizontal edges in, with at least the row above fromY
+     *                    and the rows up to toY
+     * @param withoutText the same part of the image without text, to find vertical edges in, with at least the
+     *                    rows from fromY to {@link #getRowsNeededBelow()} rows past toY, or to the bottom of the
+     *                    whole image
+     * @param imageTop    the row of the whole image the first row of the images is
+     */
+    void scanEdges(BufferedImage withText, BufferedImage withoutText, int imageTop, int fromY, int toY) {
+        int stripeCount = (int) Math.min(PARALLELISM, (long) width * (toY - fromY) / STRIPE_PIXELS_MINIMUM);
+        scanEdges(withText, withoutText, imageTop, fromY, toY, stripeCount);
+    }
+
+    /**
+     * Same as {@link #scanEdges(BufferedImage, BufferedImage, int, int, int)}, splitting the strip into the given
+     * number of stripes of each kind, or scanning it in one go if that's less than 2
+     */
+    void scanEdges(BufferedImage withText, BufferedImage withoutText, int imageTop, int fromY, int toY, int stripeCount) {
+        GrayscalePixels textPixels = new GrayscalePixels(withText);
+        GrayscalePixels noTextPixels = new GrayscalePixels(withoutText);
+
+        if (stripeCount < 2) {
+            scanHorizontalEdges(textPixels, imageTop, fromY, toY, horizontalRulings);
+            scanVerticalEdges(noTextPixels, imageTop, fromY, toY, 0, width, verticalRulings);
+            return;
+        }
+
+        List<EdgeStripe> horizontalStripes = new ArrayList<>(stripeCount);
+        List<EdgeStripe> verticalStripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            horizontalStripes.add(new EdgeStripe(textPixels, imageTop, fromY + (toY - fromY) * i / stripeCount,
+                    fromY + (toY - fromY) * (i + 1) / stripeCount, 0, width, true));
+            verticalStripes.add(new EdgeStripe(noTextPixels, imageTop, fromY, toY,
+                    width * i / stripeCount, width * (i + 1) / stripeCount, false));
+        }
+
+        List<EdgeStripe> stripes = new ArrayList<>(horizontalStripes);
+        stripes.addAll(verticalStripes);
+        ForkJoinTask.invokeAll(stripes);
+
+        // stripes are merged in order, so the edges found are the same as in a single pass
+        for (EdgeStripe stripe : horizontalStripes) {
+            horizontalRulings.addAll(stripe.rulings);
+        }
+        for (EdgeStripe stripe : verticalStripes) {
+            verticalRulings.addAll(stripe.rulings);
+        }
+    }
+
+    private void scanHorizontalEdges(GrayscalePixels pixels, int imageTop, int fromY, int toY, List<Ruling> rulings) {
+        byte[] data = pixels.data;
+
+        for (int y = Math.max(fromY, 1); y < Math.min(toY, height - 1); y++) {
+
+            int row = pixels.offsetOf(y - imageTop);
+            int rowAbove = pixels.offsetOf(y - 1 - imageTop);
+
+            for (int x = 0; x < width; x++) {
+
+                int currPixel = data[row + x] & 0xFF;
+
+                int diff = Math.abs(currPixel - (data[rowAbove + x] & 0xFF));
+                if (diff <= intensityThreshold) {
+                    continue;
+                }
+
+                // we hit what could be a line
+                int lineX = x + 1;
+
+                while (lineX < width) {
+                    int linePixel = data[row + lineX] & 0xFF;
+                    int abovePixel = data[rowAbove + lineX] & 0xFF;
+
+                    if (Math.abs(linePixel - abovePixel) <= intensityThreshold
+                            || Math.abs(currPixel - linePixel) > intensityThreshold) {
+                        break;
+                    }
+
+                    lineX++;
+                }
+
+                int endX = lineX - 1;
+                int lineWidth = endX - x;
+                if (lineWidth > minimumWidth) {
+                    rulings.add(new Ruling(new Point2D.Float(x, y), new Point2D.Float(endX, y)));
+                    // don't bother scanning the rest of the line, we've hit all of its pixels
+                    x = endX;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the vertical edges in columns [fromX, toX) starting in rows [fromY, toY). Only touches the state of
+     * those columns, so stripes of different columns can be scanned at the same time.
+     */
+    private void scanVerticalEdges(GrayscalePixels pixels, int imageTop, int fromY, int toY, int fromX, int toX,
+                                   List<Ruling> rulings) {
+        int lastRow = imageTop + pixels.height - 1;
+        boolean bottomOfImage = lastRow >= height - 1;
+        fromX = Math.max(fromX, 1);
+        toX = Math.min(toX, width - 1);
+
+        // first follow the edges that were still going at the bottom of the previous strip
+        for (int x = fromX; x < toX; x++) {
+            if (lineEnds[x] != OPEN) {
+                continue;
+            }
+
+            int lineY = followVerticalEdge(pixels, imageTop, x, openLinePixels[x], openLineNextRows[x], lastRow);
+            if (lineY <= lastRow || bottomOfImage) {
+                addVerticalRuling(x, openLineStarts[x], lineY - 1, rulings);
+            } else {
+                openLineNextRows[x] = lineY;
+            }
+        }
+
+        byte[] data = pixels.data;
+
+        for (int y = fromY; y < toY; y++) {
+
+            int row = pixels.offsetOf(y - imageTop);
+
+            for (int x = fromX; x < toX; x++) {
+
+                int currPixel = data[row + x] & 0xFF;
+
+                int diff = Math.abs(currPixel - (data[row + x - 1] & 0xFF));
+                if (diff <= intensityThreshold || y <= lineEnds[x]) {
+                    continue;
+                }
+
+                // we hit what could be a line
+                int lineY = followVerticalEdge(pixels, imageTop, x, currPixel, y + 1, lastRow);
+
+                if (lineY > lastRow && !bottomOfImage) {
+                    // it goes on into the next strip, and it's already long enough to be a ruling
+                    lineEnds[x] = OPEN;
+                    openLineStarts[x] = y;
+                    openLinePixels[x] = currPixel;
+                    openLineNextRows[x] = lineY;
+                    continue;
+                }
+
+                int endY = lineY - 1;
+                int lineLength = endY - y;
+                if (lineLength > minimumHeight) {
+                    addVerticalRuling(x, y, endY, rulings);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the first row from {@code lineY} on where the vertical edge in column x that started with the given
+     * intensity doesn't go on, or lastRow + 1 if it goes on to the end of the image
+     */
+    private int followVerticalEdge(GrayscalePixels pixels, int imageTop, int x, int startPixel, int lineY, int lastRow) {
+        byte[] data = pixels.data;
+
+        while (lineY <= lastRow) {
+            int lineRow = pixels.offsetOf(lineY - imageTop);
+            int linePixel = data[lineRow + x] & 0xFF;
+            int leftPixel = data[lineRow + x - 1] & 0xFF;
+
+            if (Math.abs(linePixel - leftPixel) <= intensityThreshold
+                    || Math.abs(startPixel - linePixel) > intensityThreshold) {
+                break;
+            }
+
+            lineY++;
+        }
+
+        return lineY;
+    }
+
+    private void addVerticalRuling(int x, int startY, int endY, List<Ruling> rulings) {
+        rulings.add(new Ruling(new Point2D.Float(x, startY), new Point2D.Float(x, endY)));
+        lineEnds[x] = endY;
+    }
+
+    /**
+     * The horizontal edges found, in the order they're found scanning the whole image column by column
+     */
+    List<Ruling> getHorizontalRulings() {
+        List<Ruling> rulings = new ArrayList<>(horizontalRulings);
+        rulings.sort(COLUMN_MAJOR_ORDER);
+        return rulings;
+    }
+
+    /**
+     * The vertical edges found, in the order they're found scanning the whole image row by row
+     */
+    List<Ruling> getVerticalRulings() {
+        if (hasOpenLines()) {
+            throw new IllegalStateException("The bottom of the image hasn't been scanned yet");
+        }
+        List<Ruling> rulings = new ArrayList<>(verticalRulings);
+        rulings.sort(ROW_MAJOR_ORDER);
+        return rulings;
+    }
+
+    private boolean hasOpenLines() {
+        for (int lineEnd : lineEnds) {
+            if (lineEnd == OPEN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scans a stripe of the image for either horizontal or vertical edges, collecting them in its own list
+     */
+    private final class EdgeStripe extends RecursiveAction {
+        private final GrayscalePixels pixels;
+        private final int imageTop;
+        private final int fromY;
+        private final int toY;
+        private final int fromX;
+        private final int toX;
+        private final boolean horizontal;
+        private final List<Ruling> rulings = new ArrayList<>();
+
+        EdgeStripe(GrayscalePixels pixels, int imageTop, int fromY, int toY, int fromX, int toX, boolean horizontal) {
+            this.pixels = pixels;
+            this.imageTop = imageTop;
+            this.fromY = fromY;
+            this.toY = toY;
+            this.fromX = fromX;
+            this.toX = toX;
+            this.horizontal = horizontal;
+        }
+
+        @Override
+        protected void compute() {
+            if (horizontal) {
+                scanHorizontalEdges(pixels, imageTop, fromY, toY, rulings);
+            } else {
+                scanVerticalEdges(pixels, imageTop, fromY, toY, fromX, toX, rulings);
+            }
+        }
+    }
+
+    /**
+     * Helper class that reads the samples of a grayscale image straight from its data buffer
+     */
+    private static final class GrayscalePixels {
+        final byte[] data;
+        final int width;
+        final int height;
+        private final int offset;
+        private final int scanlineStride;
+
+        GrayscalePixels(BufferedImage image) {
+            Raster raster = image.getRaster();
+            this.width = raster.getWidth();
+            this.height = raster.getHeight();
+
+            SampleModel sampleModel = raster.getSampleModel();
+            if (raster.getDataBuffer() instanceof DataBufferByte
+                    && sampleModel instanceof ComponentSampleModel
+                    && ((ComponentSampleModel) sampleModel).getPixelStride() == 1) {
+                ComponentSampleModel componentSampleModel = (ComponentSampleModel) sampleModel;
+                DataBufferByte dataBuffer = (DataBufferByte) raster.getDataBuffer();
+                this.data = dataBuffer.getData();
+                this.scanlineStride = componentSampleModel.getScanlineStride();
+                this.offset = dataBuffer.getOffset() + componentSampleModel.getOffset(
+                        raster.getMinX() - raster.getSampleModelTranslateX(),
+                        raster.getMinY() - raster.getSampleModelTranslateY());
+            } else {
+                // not what PDFRenderer gives us for ImageType.GRAY, copy the first band
+                this.data = new byte[width * height];
+                this.scanlineStride = width;
+                this.offset = 0;
+                int[] samples = new int[width];
+                for (int y = 0; y < height; y++) {
+                    raster.getSamples(raster.getMinX(), raster.getMinY() + y, width, 1, 0, samples);
+                    for (int x = 0; x < width; x++) {
+                        data[y * width + x] = (byte) samples[x];
+                    }
+                }
+            }
+        }
+
+        int offsetOf(int y) {
+            return offset + y * scanlineStride;
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package technology.tabula.detectors;
 
-import technology.tabula.Cell;
 import technology.tabula.Page;
 import technology.tabula.Rectangle;
 import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -18,11 +18,13 @@ import java.util.List;
 public class SpreadsheetDetectionAlgorithm implements DetectionAlgorithm {
     @Override
     public List<Rectangle> detect(Page page) {
-        List<Cell> cells = SpreadsheetExtractionAlgorithm.findCells(page.getHorizontalRulings(), page.getVerticalRulings());
-
-        SpreadsheetExtractionAlgorithm sea = new SpreadsheetExtractionAlgorithm();
-
-        List<Rectangle> tables = SpreadsheetExtractionAlgorithm.findSpreadsheetsFromCells(cells);
+        List<Rectangle> tables = new ArrayList<>();
+        // the areas are shared with the extraction of the page, so hand out copies
+        for (Rectangle area : SpreadsheetExtractionAlgorithm.findSpreadsheets(page, page.getHorizontalRulings(), page.getVerticalRulings())) {
+            Rectangle table = new Rectangle();
+            table.setRect(area);
+            tables.add(table);
+        }
 
         // we want tables to be returned from top to bottom on the page
         Collections.sort(tables, Rectangle.ILL_DEFINED_ORDER);
@@ -0,0 +1,73 @@
+package technology.tabula.detectors;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Grayscale images to render strips of a page into, backed by reusable buffers so that detecting tables on large
+ * pages doesn't allocate a new image for every strip. Thread safe.
+ */
+final class StripBufferPool {
+
+    private static final ColorModel GRAY = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+            new int[]{8}, false, true, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+
+    private final int maximumIdleBuffers;
+    private final Deque<byte[]> idleBuffers = new ArrayDeque<>();
+
+    /**
+     * @param maximumIdleBuffers how many buffers to keep for reuse, the rest are left to the garbage collector
+     */
+    StripBufferPool(int maximumIdleBuffers) {
+        this.maximumIdleBuffers = maximumIdleBuffers;
+    }
+
+    /**
+     * Returns a TYPE_BYTE_GRAY image of the given size. Its pixels are left over from previous use.
+     */
+    BufferedImage acquire(int width, int height) {
+        int size = width * height;
+        byte[] data = null;
+
+        synchronized (idleBuffers) {
+            for (Iterator<byte[]> iterator = idleBuffers.iterator(); iterator.hasNext(); ) {
+                byte[] buffer = iterator.next();
+                if (buffer.length >= size) {
+                    iterator.remove();
+                    data = buffer;
+                    break;
+                }
+            }
+        }
+        if (data == null) {
+            data = new byte[size];
+        }
+
+        WritableRaster raster = Raster.createInterleavedRaster(new DataBufferByte(data, size), width, height, width,
+                1, new int[]{0}, null);
+        return new BufferedImage(GRAY, raster, false, null);
+    }
+
+    /**
+     * Gives the buffer of an image from {@link #acquire(int, int)} back, the image mustn't be used afterwards.
+     */
+    void release(BufferedImage image) {
+        byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+        synchronized (idleBuffers) {
+            if (idleBuffers.size() < maximumIdleBuffers) {
+                idleBuffers.push(data);
+            }
+        }
+    }
+}
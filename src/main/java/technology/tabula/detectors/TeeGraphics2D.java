@@ -0,0 +1,593 @@
+package technology.tabula.detectors;
+
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * A Graphics2D that forwards everything to a primary and a secondary Graphics2D, so that one pass over
+ * a page's content draws two images.
+ *
+ * Drawing to either can be paused; state changes (transform, clip, paint, ...) keep being forwarded
+ * to both so they never get out of sync. Queries are answered by the primary.
+ */
+final class TeeGraphics2D extends Graphics2D {
+
+    private final Graphics2D primary;
+    private final Graphics2D secondary;
+    private boolean primaryDrawing = true;
+    private boolean secondaryDrawing = true;
+
+    TeeGraphics2D(Graphics2D primary, Graphics2D secondary) {
+        this.primary = primary;
+        this.secondary = secondary;
+    }
+
+    boolean isPrimaryDrawing() {
+        return primaryDrawing;
+    }
+
+    void setPrimaryDrawing(boolean primaryDrawing) {
+        this.primaryDrawing = primaryDrawing;
+    }
+
+    boolean isSecondaryDrawing() {
+        return secondaryDrawing;
+    }
+
+    void setSecondaryDrawing(boolean secondaryDrawing) {
+        this.secondaryDrawing = secondaryDrawing;
+    }
+
+    // drawing
+
+    @Override
+    public void draw(Shape s) {
+        if (primaryDrawing) {
+            primary.draw(s);
+        }
+        if (secondaryDrawing) {
+            secondary.draw(s);
+        }
+    }
+
+    @Override
+    public void fill(Shape s) {
+        if (primaryDrawing) {
+            primary.fill(s);
+        }
+        if (secondaryDrawing) {
+            secondary.fill(s);
+        }
+    }
+
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+        boolean done = !primaryDrawing || primary.drawImage(img, xform, obs);
+        if (secondaryDrawing) {
+            secondary.drawImage(img, xform, obs);
+        }
+        return done;
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+        if (primaryDrawing) {
+            primary.drawImage(img, op, x, y);
+        }
+        if (secondaryDrawing) {
+            secondary.drawImage(img, op, x, y);
+        }
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        if (primaryDrawing) {
+            primary.drawRenderedImage(img, xform);
+        }
+        if (secondaryDrawing) {
+            secondary.drawRenderedImage(img, xform);
+        }
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+        if (primaryDrawing) {
+            primary.drawRenderableImage(img, xform);
+        }
+        if (secondaryDrawing) {
+            secondary.drawRenderableImage(img, xform);
+        }
+    }
+
+    @Override
+    public void drawString(String str, int x, int y) {
+        if (primaryDrawing) {
+            primary.drawString(str, x, y);
+        }
+        if (secondaryDrawing) {
+            secondary.drawString(str, x, y);
+        }
+    }
+
+    @Override
+    public void drawString(String str, float x, float y) {
+        if (primaryDrawing) {
+            primary.drawString(str, x, y);
+        }
+        if (secondaryDrawing) {
+            secondary.drawString(str, x, y);
+        }
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        int begin = iterator.getIndex();
+        if (primaryDrawing) {
+            primary.drawString(iterator, x, y);
+        }
+        if (secondaryDrawing) {
+            iterator.setIndex(begin);
+            secondary.drawString(iterator, x, y);
+        }
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        int begin = iterator.getIndex();
+        if (primaryDrawing) {
+            primary.drawString(iterator, x, y);
+        }
+        if (secondaryDrawing) {
+            iterator.setIndex(begin);
+            secondary.drawString(iterator, x, y);
+        }
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector g, float x, float y) {
+        if (primaryDrawing) {
+            primary.drawGlyphVector(g, x, y);
+        }
+        if (secondaryDrawing) {
+            secondary.drawGlyphVector(g, x, y);
+        }
+    }
+
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        if (primaryDrawing) {
+            primary.copyArea(x, y, width, height, dx, dy);
+        }
+        if (secondaryDrawing) {
+            secondary.copyArea(x, y, width, height, dx, dy);
+        }
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        if (primaryDrawing) {
+            primary.drawLine(x1, y1, x2, y2);
+        }
+        if (secondaryDrawing) {
+            secondary.drawLine(x1, y1, x2, y2);
+        }
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        if (primaryDrawing) {
+            primary.fillRect(x, y, width, height);
+        }
+        if (secondaryDrawing) {
+            secondary.fillRect(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        if (primaryDrawing) {
+            primary.clearRect(x, y, width, height);
+        }
+        if (secondaryDrawing) {
+            secondary.clearRect(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        if (primaryDrawing) {
+            primary.drawRoundRect(x, y, width, height, arcWidth, arcHeight);
+        }
+        if (secondaryDrawing) {
+            secondary.drawRoundRect(x, y, width, height, arcWidth, arcHeight);
+        }
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        if (primaryDrawing) {
+            primary.fillRoundRect(x, y, width, height, arcWidth, arcHeight);
+        }
+        if (secondaryDrawing) {
+            secondary.fillRoundRect(x, y, width, height, arcWidth, arcHeight);
+        }
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        if (primaryDrawing) {
+            primary.drawOval(x, y, width, height);
+        }
+        if (secondaryDrawing) {
+            secondary.drawOval(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        if (primaryDrawing) {
+            primary.fillOval(x, y, width, height);
+        }
+        if (secondaryDrawing) {
+            secondary.fillOval(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        if (primaryDrawing) {
+            primary.drawArc(x, y, width, height, startAngle, arcAngle);
+        }
+        if (secondaryDrawing) {
+            secondary.drawArc(x, y, width, height, startAngle, arcAngle);
+        }
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        if (primaryDrawing) {
+            primary.fillArc(x, y, width, height, startAngle, arcAngle);
+        }
+        if (secondaryDrawing) {
+            secondary.fillArc(x, y, width, height, startAngle, arcAngle);
+        }
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        if (primaryDrawing) {
+            primary.drawPolyline(xPoints, yPoints, nPoints);
+        }
+        if (secondaryDrawing) {
+            secondary.drawPolyline(xPoints, yPoints, nPoints);
+        }
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (primaryDrawing) {
+            primary.drawPolygon(xPoints, yPoints, nPoints);
+        }
+        if (secondaryDrawing) {
+            secondary.drawPolygon(xPoints, yPoints, nPoints);
+        }
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        if (primaryDrawing) {
+            primary.fillPolygon(xPoints, yPoints, nPoints);
+        }
+        if (secondaryDrawing) {
+            secondary.fillPolygon(xPoints, yPoints, nPoints);
+        }
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+        boolean done = !primaryDrawing || primary.drawImage(img, x, y, observer);
+        if (secondaryDrawing) {
+            secondary.drawImage(img, x, y, observer);
+        }
+        return done;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+        boolean done = !primaryDrawing || primary.drawImage(img, x, y, width, height, observer);
+        if (secondaryDrawing) {
+            secondary.drawImage(img, x, y, width, height, observer);
+        }
+        return done;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+        boolean done = !primaryDrawing || primary.drawImage(img, x, y, bgcolor, observer);
+        if (secondaryDrawing) {
+            secondary.drawImage(img, x, y, bgcolor, observer);
+        }
+        return done;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor, ImageObserver observer) {
+        boolean done = !primaryDrawing || primary.drawImage(img, x, y, width, height, bgcolor, observer);
+        if (secondaryDrawing) {
+            secondary.drawImage(img, x, y, width, height, bgcolor, observer);
+        }
+        return done;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+                             ImageObserver observer) {
+        boolean done = !primaryDrawing || primary.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+        if (secondaryDrawing) {
+            secondary.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+        }
+        return done;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+                             Color bgcolor, ImageObserver observer) {
+        boolean done = !primaryDrawing || primary.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, bgcolor, observer);
+        if (secondaryDrawing) {
+            secondary.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, bgcolor, observer);
+        }
+        return done;
+    }
+
+    // state
+
+    @Override
+    public Graphics create() {
+        TeeGraphics2D copy = new TeeGraphics2D((Graphics2D) primary.create(), (Graphics2D) secondary.create());
+        copy.primaryDrawing = primaryDrawing;
+        copy.secondaryDrawing = secondaryDrawing;
+        return copy;
+    }
+
+    @Override
+    public void dispose() {
+        primary.dispose();
+        secondary.dispose();
+    }
+
+    @Override
+    public void setComposite(Composite comp) {
+        primary.setComposite(comp);
+        secondary.setComposite(comp);
+    }
+
+    @Override
+    public void setPaint(Paint paint) {
+        primary.setPaint(paint);
+        secondary.setPaint(paint);
+    }
+
+    @Override
+    public void setStroke(Stroke s) {
+        primary.setStroke(s);
+        secondary.setStroke(s);
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+        primary.setRenderingHint(hintKey, hintValue);
+        secondary.setRenderingHint(hintKey, hintValue);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        primary.setRenderingHints(hints);
+        secondary.setRenderingHints(hints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        primary.addRenderingHints(hints);
+        secondary.addRenderingHints(hints);
+    }
+
+    @Override
+    public void translate(int x, int y) {
+        primary.translate(x, y);
+        secondary.translate(x, y);
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        primary.translate(tx, ty);
+        secondary.translate(tx, ty);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        primary.rotate(theta);
+        secondary.rotate(theta);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        primary.rotate(theta, x, y);
+        secondary.rotate(theta, x, y);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        primary.scale(sx, sy);
+        secondary.scale(sx, sy);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        primary.shear(shx, shy);
+        secondary.shear(shx, shy);
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        primary.transform(tx);
+        secondary.transform(tx);
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        primary.setTransform(tx);
+        secondary.setTransform(tx);
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        primary.setBackground(color);
+        secondary.setBackground(color);
+    }
+
+    @Override
+    public void clip(Shape s) {
+        primary.clip(s);
+        secondary.clip(s);
+    }
+
+    @Override
+    public void setColor(Color c) {
+        primary.setColor(c);
+        secondary.setColor(c);
+    }
+
+    @Override
+    public void setPaintMode() {
+        primary.setPaintMode();
+        secondary.setPaintMode();
+    }
+
+    @Override
+    public void setXORMode(Color c1) {
+        primary.setXORMode(c1);
+        secondary.setXORMode(c1);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        primary.setFont(font);
+        secondary.setFont(font);
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        primary.clipRect(x, y, width, height);
+        secondary.clipRect(x, y, width, height);
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        primary.setClip(x, y, width, height);
+        secondary.setClip(x, y, width, height);
+    }
+
+    @Override
+    public void setClip(Shape clip) {
+        primary.setClip(clip);
+        secondary.setClip(clip);
+    }
+
+    // queries
+
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        return primary.hit(rect, s, onStroke);
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return primary.getDeviceConfiguration();
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return primary.getRenderingHint(hintKey);
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return primary.getRenderingHints();
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return primary.getTransform();
+    }
+
+    @Override
+    public Paint getPaint() {
+        return primary.getPaint();
+    }
+
+    @Override
+    public Composite getComposite() {
+        return primary.getComposite();
+    }
+
+    @Override
+    public Color getBackground() {
+        return primary.getBackground();
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return primary.getStroke();
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return primary.getFontRenderContext();
+    }
+
+    @Override
+    public Color getColor() {
+        return primary.getColor();
+    }
+
+    @Override
+    public Font getFont() {
+        return primary.getFont();
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        return primary.getFontMetrics(f);
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        return primary.getClipBounds();
+    }
+
+    @Override
+    public Shape getClip() {
+        return primary.getClip();
+    }
+}
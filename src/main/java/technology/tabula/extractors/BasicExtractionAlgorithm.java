@@ -16,13 +16,15 @@ import technology.tabula.TextElement;
 
 public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
     
-    private List<Ruling> verticalRulings = null;
+    // never modified, so one instance can extract from several threads at once
+    private final List<Ruling> verticalRulings;
     
     public BasicExtractionAlgorithm() {
+        this.verticalRulings = null;
     }
     
     public BasicExtractionAlgorithm(List<Ruling> verticalRulings) {
-        this.verticalRulings = verticalRulings;
+        this.verticalRulings = Collections.unmodifiableList(new ArrayList<>(verticalRulings));
     }
     
     public List<Table> extract(Page page, List<Float> verticalRulingPositions) {
@@ -30,12 +32,18 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
         for (Float p: verticalRulingPositions) {
             verticalRulings.add(new Ruling(page.getTop(), p, 0.0f, (float) page.getHeight()));
         }
-        this.verticalRulings = verticalRulings;
-        return this.extract(page);
+        return this.extractWithRulings(page, verticalRulings);
     }
 
     @Override
     public List<Table> extract(Page page) {
+        return this.extractWithRulings(page, this.verticalRulings);
+    }
+
+    /**
+     * @param verticalRulings the column boundaries, or null to work them out from the text
+     */
+    private List<Table> extractWithRulings(Page page, List<Ruling> verticalRulings) {
         
         List<TextElement> textElements = page.getText();
         
@@ -43,19 +51,19 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
             return Arrays.asList(new Table[] { Table.empty() });
         }
         
-        List<TextChunk> textChunks = this.verticalRulings == null ? TextElement.mergeWords(page.getText()) : TextElement.mergeWords(page.getText(), this.verticalRulings);
-        List<Line> lines = TextChunk.groupByLines(textChunks);
+        List<Line> lines = verticalRulings == null ? page.getTextLines() : page.getTextLines(verticalRulings);
         List<Float> columns = null;
         
-        if (this.verticalRulings != null) {
-            Collections.sort(this.verticalRulings, new Comparator<Ruling>() {
+        if (verticalRulings != null) {
+            verticalRulings = new ArrayList<>(verticalRulings);
+            Collections.sort(verticalRulings, new Comparator<Ruling>() {
                 @Override
                 public int compare(Ruling arg0, Ruling arg1) {
                     return Double.compare(arg0.getLeft(), arg1.getLeft());
                 }
             });
-            columns = new ArrayList<>(this.verticalRulings.size());
-            for (Ruling vr: this.verticalRulings) {
+            columns = new ArrayList<>(verticalRulings.size());
+            for (Ruling vr: verticalRulings) {
                 columns.add(vr.getLeft());
             }
         }
@@ -69,7 +77,8 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
 
         for (int i = 0; i < lines.size(); i++) {
             Line line = lines.get(i);
-            List<TextChunk> elements = line.getTextElements();
+            // the lines are the page's, so they're sorted and merged into cells as copies
+            List<TextChunk> elements = new ArrayList<>(line.getTextElements());
             
             Collections.sort(elements, new Comparator<TextChunk>() {
 
@@ -92,7 +101,7 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
                         break;
                     } 
                 }
-                table.add(tc, i, found ? j : columns.size());
+                table.add(new TextChunk(tc.getTextElements()), i, found ? j : columns.size());
             }
         }
         
@@ -11,7 +11,7 @@ import java.util.*;
  */
 public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
     
-    private static final float MAGIC_HEURISTIC_NUMBER = 0.65f;
+    static final float MAGIC_HEURISTIC_NUMBER = 0.65f;
     
     private static final Comparator<Point2D> Y_FIRST_POINT_COMPARATOR = (point1, point2) -> {
         int compareY = compareRounded(point1.getY(), point2.getY());
@@ -36,6 +36,19 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
         return Float.compare(d1Rounded, d2Rounded);
     }
     
+    private final boolean parallelAreas;
+    
+    public SpreadsheetExtractionAlgorithm() {
+        this(false);
+    }
+    
+    /**
+     * @param parallelAreas whether to make the tables of the spreadsheets found on a page concurrently
+     */
+    public SpreadsheetExtractionAlgorithm(boolean parallelAreas) {
+        this.parallelAreas = parallelAreas;
+    }
+    
     @Override
     public List<Table> extract(Page page) {
         return extract(page, page.getRulings());
@@ -45,7 +58,70 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
      * Extract a list of Table from page using rulings as separators
      */
     public List<Table> extract(Page page, List<Ruling> rulings) {
-        // split rulings into horizontal and vertical
+        List<List<Ruling>> collapsedRulings = page.getArtifact("collapsedRulings", Ruling.coordinatesOf(rulings),
+                () -> collapseRulings(rulings));
+        List<Ruling> horizontalR = collapsedRulings.get(0);
+        List<Ruling> verticalR = collapsedRulings.get(1);
+        
+        // the page's cells are shared, and the tables fill theirs with text
+        List<Cell> cells = new ArrayList<>();
+        for (Cell c: findCells(page, horizontalR, verticalR)) {
+            cells.add(new Cell(c.y, c.x, c.width, c.height));
+        }
+        List<Rectangle> spreadsheetAreas = findSpreadsheets(page, horizontalR, verticalR);
+        
+        List<List<Cell>> cellsOfAreas = new ArrayList<>(spreadsheetAreas.size());
+        Set<Cell> cellsSeen = Collections.newSetFromMap(new IdentityHashMap<>());
+        // a cell that intersects several areas gets its text only once
+        List<Cell> cellsInAreas = new ArrayList<>();
+        boolean areasShareCells = false;
+        for (Rectangle area: spreadsheetAreas) {
+            List<Cell> overlappingCells = new ArrayList<>();
+            for (Cell c: cells) {
+                if (c.intersects(area)) {
+                    overlappingCells.add(c);
+                    if (cellsSeen.add(c)) {
+                        cellsInAreas.add(c);
+                    } else {
+                        areasShareCells = true;
+                    }
+                }
+            }
+            cellsOfAreas.add(overlappingCells);
+        }
+        
+        assignTextToCells(page.getText(), cellsInAreas);
+
+        // tables merge the cells that end up in the same place into one another, so the tables of areas that share
+        // cells are made one after the other
+        List<Table> spreadsheets = Utils.mapInOrder(Utils.range(0, spreadsheetAreas.size()),
+                i -> makeTable(page, spreadsheetAreas.get(i), cellsOfAreas.get(i), horizontalR, verticalR),
+                parallelAreas && !areasShareCells);
+        Utils.sort(spreadsheets, Rectangle.ILL_DEFINED_ORDER);
+        return spreadsheets;
+    }
+    
+    private Table makeTable(Page page, Rectangle area, List<Cell> overlappingCells, List<Ruling> horizontalR, List<Ruling> verticalR) {
+        List<Ruling> horizontalOverlappingRulings = new ArrayList<>();
+        for (Ruling hr: horizontalR) {
+            if (area.intersectsLine(hr)) {
+                horizontalOverlappingRulings.add(hr);
+            }
+        }
+        List<Ruling> verticalOverlappingRulings = new ArrayList<>();
+        for (Ruling vr: verticalR) {
+            if (area.intersectsLine(vr)) {
+                verticalOverlappingRulings.add(vr);
+            }
+        }
+                    
+        return new TableWithRulingLines(area, overlappingCells, horizontalOverlappingRulings, verticalOverlappingRulings, this, page.getPageNumber());
+    }
+
+    /**
+     * Splits the rulings into horizontal and vertical ones, and collapses each
+     */
+    private static List<List<Ruling>> collapseRulings(List<Ruling> rulings) {
         List<Ruling> horizontalR = new ArrayList<>();
         List<Ruling> verticalR = new ArrayList<>();
         
@@ -57,44 +133,107 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
                 verticalR.add(r);
             }
         }
-        horizontalR = Ruling.collapseOrientedRulings(horizontalR);
-        verticalR = Ruling.collapseOrientedRulings(verticalR);
-        
-        List<Cell> cells = findCells(horizontalR, verticalR);
-        List<Rectangle> spreadsheetAreas = findSpreadsheetsFromCells(cells);
-        
-        List<Table> spreadsheets = new ArrayList<>();
-        for (Rectangle area: spreadsheetAreas) {
+        return Arrays.asList(Ruling.collapseOrientedRulings(horizontalR), Ruling.collapseOrientedRulings(verticalR));
+    }
+    
+    /**
+     * Distributes the page's characters among the cells in a single sweep and merges
+     * the words of every cell.
+     *
+     * Characters and cells are both swept by their top coordinate, so each character
+     * is only tested against the cells that span its row. Each cell gets the same
+     * characters {@link Page#getText(Rectangle)} would return for it, sorted the same way.
+     *
+     * @param textElements the page's characters, in reading order
+     * @param cells cells to fill; {@link Cell#setTextElements(List)} is called on each
+     */
+    public static void assignTextToCells(List<TextElement> textElements, List<Cell> cells) {
+        int cellCount = cells.size();
+        if (cellCount == 0) {
+            return;
+        }
 
-            List<Cell> overlappingCells = new ArrayList<>();
-            for (Cell c: cells) {
-                if (c.intersects(area)) {
+        int charCount = textElements.size();
+        long[] charsByTop = new long[charCount];
+        for (int i = 0; i < charCount; i++) {
+            charsByTop[i] = byTop(textElements.get(i).y, i);
+        }
+        Arrays.sort(charsByTop);
 
-                    c.setTextElements(TextElement.mergeWords(page.getText(c)));
-                    overlappingCells.add(c);
-                }
+        long[] cellsByTop = new long[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cellsByTop[i] = byTop(cells.get(i).y, i);
+        }
+        Arrays.sort(cellsByTop);
+
+        // indexes (in page order) of the characters contained in each cell, by the cell's position in cells
+        int[][] charsOfCell = new int[cellCount][];
+        int[] charCountOfCell = new int[cellCount];
+
+        // positions of the cells that span the current row
+        int[] activeCells = new int[cellCount];
+        int activeCount = 0;
+        int nextCell = 0;
+        for (long charByTop: charsByTop) {
+            int charIndex = (int) charByTop;
+            TextElement te = textElements.get(charIndex);
+            float top = te.y;
+
+            while (nextCell < cellCount && cells.get((int) cellsByTop[nextCell]).y <= top) {
+                activeCells[activeCount++] = (int) cellsByTop[nextCell++];
             }
 
-            List<Ruling> horizontalOverlappingRulings = new ArrayList<>();
-            for (Ruling hr: horizontalR) {
-                if (area.intersectsLine(hr)) {
-                    horizontalOverlappingRulings.add(hr);
+            int kept = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int cellIndex = activeCells[i];
+                Cell c = cells.get(cellIndex);
+                // a cell that ends above this character can't contain it, nor any character after it
+                if (c.getBottom() < top) {
+                    continue;
                 }
+                activeCells[kept++] = cellIndex;
+                if (!c.contains(te)) {
+                    continue;
+                }
+                int[] indexes = charsOfCell[cellIndex];
+                int count = charCountOfCell[cellIndex];
+                if (indexes == null) {
+                    indexes = charsOfCell[cellIndex] = new int[8];
+                } else if (count == indexes.length) {
+                    indexes = charsOfCell[cellIndex] = Arrays.copyOf(indexes, count * 2);
+                }
+                indexes[count] = charIndex;
+                charCountOfCell[cellIndex] = count + 1;
             }
-            List<Ruling> verticalOverlappingRulings = new ArrayList<>();
-            for (Ruling vr: verticalR) {
-                if (area.intersectsLine(vr)) {
-                    verticalOverlappingRulings.add(vr);
+            activeCount = kept;
+        }
+
+        for (int cellIndex = 0; cellIndex < cellCount; cellIndex++) {
+            int[] indexes = charsOfCell[cellIndex];
+            int count = charCountOfCell[cellIndex];
+            List<TextElement> cellText = new ArrayList<>(count);
+            if (indexes != null) {
+                Arrays.sort(indexes, 0, count);
+                for (int i = 0; i < count; i++) {
+                    cellText.add(textElements.get(indexes[i]));
                 }
+                Utils.sort(cellText, Rectangle.ILL_DEFINED_ORDER);
             }
-                        
-            TableWithRulingLines t = new TableWithRulingLines(area, overlappingCells, horizontalOverlappingRulings, verticalOverlappingRulings, this, page.getPageNumber());
-            spreadsheets.add(t);
+            cells.get(cellIndex).setTextElements(TextElement.mergeWords(cellText));
         }
-        Utils.sort(spreadsheets, Rectangle.ILL_DEFINED_ORDER);
-        return spreadsheets;
     }
-    
+
+    /**
+     * Packs a top coordinate and an index into a long that sorts by the top, as {@link Float#compare} does, and
+     * then by the index
+     */
+    private static long byTop(float top, int index) {
+        int bits = Float.floatToIntBits(top);
+        // flip the magnitude of negative floats, so the bits compare as signed ints in the same order as the floats
+        bits ^= (bits >> 31) & 0x7fffffff;
+        return ((long) bits << 32) | index;
+    }
+
     public boolean isTabular(Page page) {
         
         // if there's no text at all on the page, it's not a table 
@@ -129,9 +268,33 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
         return ratio > MAGIC_HEURISTIC_NUMBER && ratio < (1 / MAGIC_HEURISTIC_NUMBER);
     }
     
+    /**
+     * Like {@link #findCells(List, List)}, but the intersections and cells are worked out once per page and
+     * collapsed rulings; the cells are the page's, so they mustn't be modified
+     */
+    public static List<Cell> findCells(Page page, List<Ruling> horizontalRulingLines, List<Ruling> verticalRulingLines) {
+        List<List<Float>> rulings = Arrays.asList(Ruling.coordinatesOf(horizontalRulingLines), Ruling.coordinatesOf(verticalRulingLines));
+        Map<Point2D, Ruling[]> intersectionPoints = page.getArtifact("intersections", rulings,
+                () -> Ruling.findIntersections(horizontalRulingLines, verticalRulingLines));
+        return page.getArtifact("cells", rulings, () -> findCells(intersectionPoints));
+    }
+    
+    /**
+     * Like {@link #findSpreadsheetsFromCells(List)} with the cells of {@link #findCells(Page, List, List)}, worked
+     * out once per page and collapsed rulings; the areas are the page's, so they mustn't be modified
+     */
+    public static List<Rectangle> findSpreadsheets(Page page, List<Ruling> horizontalRulingLines, List<Ruling> verticalRulingLines) {
+        List<List<Float>> rulings = Arrays.asList(Ruling.coordinatesOf(horizontalRulingLines), Ruling.coordinatesOf(verticalRulingLines));
+        return page.getArtifact("spreadsheetAreas", rulings,
+                () -> findSpreadsheetsFromCells(findCells(page, horizontalRulingLines, verticalRulingLines)));
+    }
+    
     public static List<Cell> findCells(List<Ruling> horizontalRulingLines, List<Ruling> verticalRulingLines) {
+        return findCells(Ruling.findIntersections(horizontalRulingLines, verticalRulingLines));
+    }
+    
+    private static List<Cell> findCells(Map<Point2D, Ruling[]> intersectionPoints) {
         List<Cell> cellsFound = new ArrayList<>();
-        Map<Point2D, Ruling[]> intersectionPoints = Ruling.findIntersections(horizontalRulingLines, verticalRulingLines);
         List<Point2D> intersectionPointsList = new ArrayList<>(intersectionPoints.keySet());
         intersectionPointsList.sort(Y_FIRST_POINT_COMPARATOR);
         
@@ -0,0 +1,159 @@
+package technology.tabula.extractors;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import technology.tabula.Cell;
+import technology.tabula.Line;
+import technology.tabula.Page;
+import technology.tabula.Rectangle;
+import technology.tabula.Ruling;
+import technology.tabula.TableWithRulingLines;
+import technology.tabula.TextChunk;
+import technology.tabula.TextElement;
+import technology.tabula.Utils;
+
+/**
+ * Decides whether a page should be extracted in lattice or stream mode, like
+ * {@link SpreadsheetExtractionAlgorithm#isTabular(Page)}, but without extracting it twice.
+ *
+ * Both compare the size of the grid the ruling lines make with the size of the grid the text makes. Here the ruling
+ * grid comes from the ruling intersections alone, without filling its cells with text; and the text grid from
+ * counting the page's text lines and the columns their words line up in, without filling a table with them.
+ */
+public class TabularityClassifier {
+
+    private final SpreadsheetExtractionAlgorithm spreadsheetExtractor = new SpreadsheetExtractionAlgorithm();
+
+    public boolean isTabular(Page page) {
+        List<TextElement> text = page.getText();
+
+        // if there's no text at all on the page, it's not a table
+        // (we won't be able to do anything with it though)
+        if (text.isEmpty()) {
+            return false;
+        }
+
+        // only look at the minimal region of the page that contains every character
+        Rectangle textBounds = Utils.bounds(text);
+
+        TableWithRulingLines rulingGrid = getRulingGrid(page, text, textBounds);
+        if (rulingGrid == null) {
+            return false;
+        }
+        int rowsDefinedByLines = rulingGrid.getRowCount();
+        int colsDefinedByLines = rulingGrid.getColCount();
+
+        // the same lines stream mode extracts the page's text from, which it then doesn't have to work out again
+        List<Line> textLines = page.getTextLines();
+        int rowsDefinedWithoutLines = countTextRows(textLines);
+        int colsDefinedWithoutLines = countTextColumns(textLines);
+        if (rowsDefinedWithoutLines == 0 || colsDefinedWithoutLines == 0) {
+            return false;
+        }
+
+        float ratio = (((float) colsDefinedByLines / colsDefinedWithoutLines) +
+                ((float) rowsDefinedByLines / rowsDefinedWithoutLines)) / 2.0f;
+
+        return ratio > SpreadsheetExtractionAlgorithm.MAGIC_HEURISTIC_NUMBER
+                && ratio < (1 / SpreadsheetExtractionAlgorithm.MAGIC_HEURISTIC_NUMBER);
+    }
+
+    /**
+     * The empty cells of the first table the rulings in the given area make, with the area's border around them as
+     * {@link Page#getArea(Rectangle)} would add it, or null if they don't make any
+     */
+    private TableWithRulingLines getRulingGrid(Page page, List<TextElement> text, Rectangle area) {
+        List<Ruling> rulings = Ruling.cropRulingsToArea(page.getRulings(), area);
+
+        Point2D.Double leftTop = new Point2D.Double(area.getLeft(), area.getTop());
+        Point2D.Double rightTop = new Point2D.Double(area.getRight(), area.getTop());
+        Point2D.Double rightBottom = new Point2D.Double(area.getRight(), area.getBottom());
+        Point2D.Double leftBottom = new Point2D.Double(area.getLeft(), area.getBottom());
+        rulings.add(new Ruling(leftTop, rightTop));
+        rulings.add(new Ruling(rightTop, rightBottom));
+        rulings.add(new Ruling(rightBottom, leftBottom));
+        rulings.add(new Ruling(leftBottom, leftTop));
+
+        float minimumCharWidth = Float.MAX_VALUE;
+        float minimumCharHeight = Float.MAX_VALUE;
+        for (TextElement te : text) {
+            minimumCharWidth = Math.min(minimumCharWidth, te.width);
+            minimumCharHeight = Math.min(minimumCharHeight, te.height);
+        }
+        Utils.snapPoints(rulings, minimumCharWidth, minimumCharHeight);
+
+        List<Ruling> horizontalRulings = new ArrayList<>();
+        List<Ruling> verticalRulings = new ArrayList<>();
+        for (Ruling ruling : rulings) {
+            if (ruling.horizontal()) {
+                horizontalRulings.add(ruling);
+            } else if (ruling.vertical()) {
+                verticalRulings.add(ruling);
+            }
+        }
+        horizontalRulings = Ruling.collapseOrientedRulings(horizontalRulings);
+        verticalRulings = Ruling.collapseOrientedRulings(verticalRulings);
+
+        List<Cell> cells = SpreadsheetExtractionAlgorithm.findCells(horizontalRulings, verticalRulings);
+        List<Rectangle> tableAreas = SpreadsheetExtractionAlgorithm.findSpreadsheetsFromCells(cells);
+
+        // tables grow to fit their cells, so which one comes first is only known once they're all made
+        List<TableWithRulingLines> tables = new ArrayList<>(tableAreas.size());
+        for (Rectangle tableArea : tableAreas) {
+            List<Cell> tableCells = new ArrayList<>();
+            for (Cell cell : cells) {
+                if (cell.intersects(tableArea)) {
+                    tableCells.add(cell);
+                }
+            }
+            tables.add(new TableWithRulingLines(tableArea, tableCells, Collections.<Ruling>emptyList(),
+                    Collections.<Ruling>emptyList(), spreadsheetExtractor, page.getPageNumber()));
+        }
+        if (tables.isEmpty()) {
+            return null;
+        }
+        Utils.sort(tables, Rectangle.ILL_DEFINED_ORDER);
+        return tables.get(0);
+    }
+
+    /**
+     * The number of rows stream mode would make of the lines: up to the last one with some text that isn't blank
+     */
+    private static int countTextRows(List<Line> lines) {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            for (TextChunk word : lines.get(i).getTextElements()) {
+                if (!word.isSameChar(Line.WHITE_SPACE_CHARS)) {
+                    return i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The number of columns stream mode would make of the lines: each word goes in the first of the
+     * {@link BasicExtractionAlgorithm#columnPositions(List) column positions} that ends after its left, or after the
+     * last one if none does
+     */
+    private static int countTextColumns(List<Line> lines) {
+        List<Float> columns = BasicExtractionAlgorithm.columnPositions(lines);
+
+        int columnCount = 0;
+        for (Line line : lines) {
+            for (TextChunk word : line.getTextElements()) {
+                if (word.isSameChar(Line.WHITE_SPACE_CHARS)) {
+                    continue;
+                }
+                int column = 0;
+                while (column < columns.size() && word.getLeft() > columns.get(column)) {
+                    column++;
+                }
+                columnCount = Math.max(columnCount, column + 1);
+            }
+        }
+        return columnCount;
+    }
+}
@@ -0,0 +1,317 @@
+package technology.tabula.writers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import technology.tabula.ColumnType;
+import technology.tabula.Table;
+import technology.tabula.TypedTable;
+
+/**
+ * Writes tables as an Apache Arrow IPC stream, which can be read, or memory-mapped, without parsing the values.
+ *
+ * The stream has one record batch for each table. Its schema has as many columns as the widest table, named
+ * column_1, column_2 and so on, and narrower tables leave the rest null. The metadata of each record batch has the
+ * page number of its table, its table_id, counting from 0 across the stream, and its extraction method.
+ *
+ * The columns are UTF-8 strings, or, when typed, of the type {@link TypedTable} infers for them across all the
+ * tables: 64-bit integers, doubles for decimals and percents, or dates in days. The metadata of each typed column
+ * has its tabula:type, which tells percents from decimals. Blank cells of typed columns are null.
+ */
+public class ArrowWriter implements Writer {
+
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final short METADATA_VERSION_V5 = 4;
+    private static final byte MESSAGE_HEADER_SCHEMA = 1;
+    private static final byte MESSAGE_HEADER_RECORD_BATCH = 3;
+
+    // ids of the Type union of the Arrow schema
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_FLOATING_POINT = 3;
+    private static final byte TYPE_UTF8 = 5;
+    private static final byte TYPE_DATE = 8;
+
+    private final boolean typed;
+
+    public ArrowWriter() {
+        this(false);
+    }
+
+    /**
+     * @param typed whether to give the columns the type of their values instead of making them all strings
+     */
+    public ArrowWriter(boolean typed) {
+        this.typed = typed;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    @Override
+    public void write(Appendable out, Table table) throws IOException {
+        write(out, Collections.singletonList(table));
+    }
+
+    /**
+     * Writes the stream to the Appendable as bytes if it's an OutputStream, like a PrintStream, or else as
+     * characters of the same value, which stay intact when the Appendable writes ISO-8859-1.
+     */
+    @Override
+    public void write(Appendable out, List<Table> tables) throws IOException {
+        writeBytes(out, bytes -> write(bytes, tables));
+    }
+
+    /**
+     * Writes the stream as it is, as it has no text to encode
+     */
+    @Override
+    public void write(OutputStream out, Charset charset, List<Table> tables) throws IOException {
+        write(out, tables);
+    }
+
+    public void write(OutputStream out, List<Table> tables) throws IOException {
+        ColumnType[] columnTypes = columnTypes(tables);
+        writeSchema(out, columnTypes);
+        for (int i = 0; i < tables.size(); i++)
+            writeRecordBatch(out, TypedTable.of(tables.get(i), columnTypes), i);
+        writeEndOfStream(out);
+        out.flush();
+    }
+
+    /**
+     * The schema, a part for the record batch of each table, and the end of the stream
+     */
+    @Override
+    public List<Part> parts(List<Table> tables) {
+        ColumnType[] columnTypes = columnTypes(tables);
+        List<Part> parts = new ArrayList<>(tables.size() + 2);
+        parts.add(part(out -> writeSchema(out, columnTypes)));
+        for (int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
+            int tableId = i;
+            parts.add(part(out -> writeRecordBatch(out, TypedTable.of(table, columnTypes), tableId)));
+        }
+        parts.add(part(ArrowWriter::writeEndOfStream));
+        return parts;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private interface Bytes {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private static Part part(Bytes bytes) {
+        return new Part() {
+            @Override
+            public void writeTo(Appendable out) throws IOException {
+                writeBytes(out, bytes);
+            }
+
+            @Override
+            public void writeTo(OutputStream out, Charset charset) throws IOException {
+                bytes.writeTo(out);
+            }
+        };
+    }
+
+    private static void writeBytes(Appendable out, Bytes bytes) throws IOException {
+        if (out instanceof OutputStream) {
+            bytes.writeTo((OutputStream) out);
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        bytes.writeTo(buffer);
+        for (byte b : buffer.toByteArray())
+            out.append((char) (b & 0xFF));
+    }
+
+    private ColumnType[] columnTypes(List<Table> tables) {
+        if (typed)
+            return TypedTable.inferColumnTypes(tables);
+
+        int columnCount = 0;
+        for (Table table : tables)
+            columnCount = Math.max(columnCount, table.getColCount());
+        ColumnType[] columnTypes = new ColumnType[columnCount];
+        Arrays.fill(columnTypes, ColumnType.TEXT);
+        return columnTypes;
+    }
+
+    private void writeSchema(OutputStream out, ColumnType[] columnTypes) throws IOException {
+        writeMessage(out, MESSAGE_HEADER_SCHEMA, schema(columnTypes, typed), null, new byte[0]);
+    }
+
+    private static void writeEndOfStream(OutputStream out) throws IOException {
+        writeInt(out, CONTINUATION);
+        writeInt(out, 0);
+    }
+
+    private static FlatBuffer.Table schema(ColumnType[] columnTypes, boolean typed) {
+        List<FlatBuffer.Table> fields = new ArrayList<>(columnTypes.length);
+        for (int column = 0; column < columnTypes.length; column++) {
+            FlatBuffer.Table type = new FlatBuffer.Table();
+            byte typeId;
+            switch (columnTypes[column]) {
+                case INTEGER:
+                    typeId = TYPE_INT;
+                    type.add(0, 4, 64).add(1, 1, 1); // bitWidth, is_signed
+                    break;
+                case DECIMAL:
+                case PERCENT:
+                    typeId = TYPE_FLOATING_POINT;
+                    type.add(0, 2, 2); // precision: DOUBLE
+                    break;
+                case DATE:
+                    typeId = TYPE_DATE;
+                    type.add(0, 2, 0); // unit: DAY
+                    break;
+                default:
+                    typeId = TYPE_UTF8;
+            }
+
+            FlatBuffer.Table field = new FlatBuffer.Table()
+                    .add(0, FlatBuffer.string("column_" + (column + 1)))
+                    .add(1, 1, 1) // nullable
+                    .add(2, 1, typeId)
+                    .add(3, type)
+                    .add(5, FlatBuffer.tables(Collections.<FlatBuffer.Table>emptyList())); // children
+            if (typed)
+                field.add(6, FlatBuffer.tables(Collections.singletonList(keyValue("tabula:type", columnTypes[column].getName()))));
+            fields.add(field);
+        }
+        return new FlatBuffer.Table()
+                .add(0, 2, 0) // endianness: little
+                .add(1, FlatBuffer.tables(fields));
+    }
+
+    private static void writeRecordBatch(OutputStream out, TypedTable typedTable, int tableId) throws IOException {
+        Table table = typedTable.getTable();
+        int rowCount = table.getRowCount();
+
+        Body body = new Body();
+        long[] nodes = new long[2 * typedTable.getColCount()];
+        for (int column = 0; column < typedTable.getColCount(); column++) {
+            byte[] validity = new byte[(rowCount + 7) / 8];
+            int nullCount = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (typedTable.isNull(row, column))
+                    nullCount++;
+                else
+                    validity[row / 8] |= 1 << (row % 8);
+            }
+            nodes[2 * column] = rowCount;
+            nodes[2 * column + 1] = nullCount;
+            body.add(nullCount == 0 ? new byte[0] : validity);
+
+            FlatBuffer.Output values = new FlatBuffer.Output();
+            switch (typedTable.getColumnType(column)) {
+                case INTEGER:
+                    for (long value : typedTable.getLongs(column))
+                        values.putLong(value);
+                    body.add(values.toByteArray());
+                    break;
+                case DECIMAL:
+                case PERCENT:
+                    for (double value : typedTable.getDoubles(column))
+                        values.putLong(Double.doubleToLongBits(value));
+                    body.add(values.toByteArray());
+                    break;
+                case DATE:
+                    for (int value : typedTable.getEpochDays(column))
+                        values.putInt(value);
+                    body.add(values.toByteArray());
+                    break;
+                default:
+                    ByteArrayOutputStream data = new ByteArrayOutputStream();
+                    values.putInt(0);
+                    for (String text : typedTable.getTexts(column)) {
+                        if (text != null) {
+                            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                            data.write(utf8, 0, utf8.length);
+                        }
+                        values.putInt(data.size());
+                    }
+                    body.add(values.toByteArray());
+                    body.add(data.toByteArray());
+            }
+        }
+
+        FlatBuffer.Table recordBatch = new FlatBuffer.Table()
+                .add(0, 8, rowCount)
+                .add(1, FlatBuffer.structs(2, nodes))
+                .add(2, FlatBuffer.structs(2, body.buffers()));
+
+        List<FlatBuffer.Table> metadata = new ArrayList<>();
+        metadata.add(keyValue("page_number", Integer.toString(table.getPageNumber())));
+        metadata.add(keyValue("table_id", Integer.toString(tableId)));
+        metadata.add(keyValue("extraction_method", table.getExtractionMethod()));
+
+        writeMessage(out, MESSAGE_HEADER_RECORD_BATCH, recordBatch, metadata, body.toByteArray());
+    }
+
+    private static FlatBuffer.Table keyValue(String key, String value) {
+        return new FlatBuffer.Table()
+                .add(0, FlatBuffer.string(key))
+                .add(1, FlatBuffer.string(value));
+    }
+
+    /**
+     * Writes an encapsulated message: its metadata, prefixed by its size, and its body
+     */
+    private static void writeMessage(OutputStream out, byte headerType, FlatBuffer.Table header,
+                                     List<FlatBuffer.Table> customMetadata, byte[] body) throws IOException {
+        FlatBuffer.Table message = new FlatBuffer.Table()
+                .add(0, 2, METADATA_VERSION_V5)
+                .add(1, 1, headerType)
+                .add(2, header)
+                .add(3, 8, body.length);
+        if (customMetadata != null)
+            message.add(4, FlatBuffer.tables(customMetadata));
+
+        byte[] metadata = FlatBuffer.finish(message);
+        writeInt(out, CONTINUATION);
+        writeInt(out, metadata.length);
+        out.write(metadata);
+        out.write(body);
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    /**
+     * The buffers of a record batch, each starting on an 8-byte boundary of the body
+     */
+    private static final class Body {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<Long> buffers = new ArrayList<>();
+
+        void add(byte[] buffer) {
+            buffers.add((long) bytes.size());
+            buffers.add((long) buffer.length);
+            bytes.write(buffer, 0, buffer.length);
+            while (bytes.size() % 8 != 0)
+                bytes.write(0);
+        }
+
+        long[] buffers() {
+            long[] longs = new long[buffers.size()];
+            for (int i = 0; i < longs.length; i++)
+                longs[i] = buffers.get(i);
+            return longs;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+}
@@ -1,6 +1,12 @@
 package technology.tabula.writers;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -11,9 +17,23 @@ import org.apache.commons.csv.CSVFormat;
 import technology.tabula.RectangularTextContainer;
 import technology.tabula.Table;
 
+/**
+ * Writes tables as CSV, or in another {@link CSVFormat}.
+ *
+ * Tables are written in {@link CSVFormat#EXCEL} and {@link CSVFormat#TDF} without going through {@link CSVPrinter}:
+ * the text of the cells is quoted straight into a large buffer, which is written, or encoded and written, a chunk at
+ * a time. The output is the same as CSVPrinter's, character for character.
+ */
 public class CSVWriter implements Writer {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
 	private final CSVFormat format;
+    // whether the tables can be written without CSVPrinter, and how
+    private final boolean direct;
+    private final char delimiter;
+    private final char quote;
+    private final String recordSeparator;
 
     public CSVWriter() {
         this(CSVFormat.EXCEL);
@@ -21,6 +41,10 @@ public class CSVWriter implements Writer {
 
     protected CSVWriter(CSVFormat format) {
         this.format = format;
+        this.direct = format.equals(CSVFormat.EXCEL) || format.equals(CSVFormat.TDF);
+        this.delimiter = format.getDelimiterString().charAt(0);
+        this.quote = format.getQuoteCharacter() == null ? '"' : format.getQuoteCharacter();
+        this.recordSeparator = format.getRecordSeparator();
     }
 
 	// - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
@@ -31,6 +55,59 @@ public class CSVWriter implements Writer {
 
     @Override
     public void write(Appendable out, List<Table> tables) throws IOException {
+        if (!direct) {
+            writeWithPrinter(out, tables);
+            return;
+        }
+
+        if (out instanceof java.io.Writer) {
+            java.io.Writer writer = (java.io.Writer) out;
+            writeDirectly(tables, (chars, length) -> writer.write(chars, 0, length));
+            writer.flush();
+        } else {
+            writeDirectly(tables, (chars, length) -> out.append(CharBuffer.wrap(chars, 0, length)));
+        }
+    }
+
+    /**
+     * Encodes the buffered text a chunk at a time, replacing what the charset can't encode, as an
+     * {@link java.io.OutputStreamWriter} does.
+     */
+    @Override
+    public void write(OutputStream out, Charset charset, List<Table> tables) throws IOException {
+        if (!direct) {
+            Writer.super.write(out, charset, tables);
+            return;
+        }
+
+        CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate((int) Math.ceil(BUFFER_SIZE * encoder.maxBytesPerChar()));
+        writeDirectly(tables, (chars, length) -> {
+            encoder.encode(CharBuffer.wrap(chars, 0, length), bytes, false);
+            out.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        });
+        encoder.encode(CharBuffer.allocate(0), bytes, true);
+        encoder.flush(bytes);
+        out.write(bytes.array(), 0, bytes.position());
+        out.flush();
+    }
+
+    /**
+     * One part for each table, as the records of a table don't depend on the others
+     */
+    @Override
+    public List<Part> parts(List<Table> tables) {
+        List<Part> parts = new ArrayList<>(tables.size());
+        for (Table table : tables)
+            parts.add(Writer.part(this, Collections.singletonList(table)));
+        return parts;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private void writeWithPrinter(Appendable out, List<Table> tables) throws IOException {
         try (CSVPrinter printer = new CSVPrinter(out, format)) {
             for (Table table : tables) {
                 for (List<RectangularTextContainer> row : table.getRows()) {
@@ -44,4 +121,111 @@ public class CSVWriter implements Writer {
         }
     }
 
+    private void writeDirectly(List<Table> tables, Chunks chunks) throws IOException {
+        Buffer buffer = new Buffer(chunks);
+        for (Table table : tables) {
+            for (List<RectangularTextContainer> row : table.getRows()) {
+                for (int i = 0; i < row.size(); i++) {
+                    if (i > 0)
+                        buffer.append(delimiter);
+                    writeValue(buffer, row.get(i).getText(), i == 0);
+                }
+                buffer.append(recordSeparator);
+            }
+        }
+        buffer.flush();
+    }
+
+    /**
+     * Writes the value quoted when CSVFormat would quote it, in its minimal quote mode
+     */
+    private void writeValue(Buffer buffer, String value, boolean newRecord) throws IOException {
+        int length = value.length();
+        boolean quoted;
+        if (length == 0) {
+            // so that a record of one empty value isn't an empty line
+            quoted = newRecord;
+        } else if (value.charAt(0) <= '#') {
+            quoted = true;
+        } else {
+            quoted = false;
+            for (int i = 0; i < length && !quoted; i++) {
+                char c = value.charAt(i);
+                quoted = c == '\n' || c == '\r' || c == quote || c == delimiter;
+            }
+            quoted |= value.charAt(length - 1) <= ' ';
+        }
+
+        if (!quoted) {
+            buffer.append(value);
+            return;
+        }
+        buffer.append(quote);
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) == quote) {
+                // the quote is doubled: written once here, and again with the rest of the value
+                buffer.append(value, start, i + 1);
+                start = i;
+            }
+        }
+        buffer.append(value, start, length);
+        buffer.append(quote);
+    }
+
+    private interface Chunks {
+        void write(char[] chars, int length) throws IOException;
+    }
+
+    /**
+     * Collects characters and hands them on in chunks of up to {@link #BUFFER_SIZE}, never splitting a surrogate
+     * pair, so that each chunk can be encoded on its own
+     */
+    private static final class Buffer {
+        private final char[] chars = new char[BUFFER_SIZE];
+        private final Chunks chunks;
+        private int length = 0;
+
+        Buffer(Chunks chunks) {
+            this.chunks = chunks;
+        }
+
+        void append(char c) throws IOException {
+            if (length == chars.length)
+                writeChunk();
+            chars[length++] = c;
+        }
+
+        void append(String s) throws IOException {
+            append(s, 0, s.length());
+        }
+
+        void append(String s, int start, int end) throws IOException {
+            while (start < end) {
+                if (length == chars.length)
+                    writeChunk();
+                int count = Math.min(end - start, chars.length - length);
+                s.getChars(start, start + count, chars, length);
+                length += count;
+                start += count;
+            }
+        }
+
+        void flush() throws IOException {
+            if (length > 0)
+                chunks.write(chars, length);
+            length = 0;
+        }
+
+        private void writeChunk() throws IOException {
+            if (Character.isHighSurrogate(chars[length - 1])) {
+                chunks.write(chars, length - 1);
+                chars[0] = chars[length - 1];
+                length = 1;
+            } else {
+                flush();
+            }
+        }
+    }
+
 }
@@ -0,0 +1,214 @@
+package technology.tabula.writers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Just enough of FlatBuffers to write the metadata of Arrow IPC messages.
+ *
+ * Unlike the FlatBuffers builder, which writes back to front, this lays a buffer out front to back: each table
+ * comes before the tables, vectors and strings it refers to, which is all the offsets need, as they only point
+ * forwards. Every table starts on an 8-byte boundary and its fields are aligned to their size.
+ */
+final class FlatBuffer {
+
+    private FlatBuffer() {}
+
+    /**
+     * Something a table field can refer to
+     */
+    interface Item {
+        /**
+         * @return where the item starts, which is where offsets to it point
+         */
+        int writeTo(Output out);
+    }
+
+    /**
+     * A table, with its fields set by id. Fields left unset are absent and read as their default.
+     */
+    static final class Table implements Item {
+        private final List<Field> fields = new ArrayList<>();
+
+        Table add(int id, int size, long value) {
+            while (fields.size() <= id)
+                fields.add(null);
+            fields.set(id, new Field(size, value, null));
+            return this;
+        }
+
+        Table add(int id, Item item) {
+            while (fields.size() <= id)
+                fields.add(null);
+            fields.set(id, new Field(4, 0, item));
+            return this;
+        }
+
+        @Override
+        public int writeTo(Output out) {
+            // lay the fields out largest first, after the offset to the vtable, so they're aligned to their size
+            int[] fieldOffsets = new int[fields.size()];
+            int tableSize = 4;
+            for (int size = 8; size >= 1; size /= 2) {
+                for (int id = 0; id < fields.size(); id++) {
+                    Field field = fields.get(id);
+                    if (field != null && field.size == size) {
+                        tableSize = (tableSize + size - 1) / size * size;
+                        fieldOffsets[id] = tableSize;
+                        tableSize += size;
+                    }
+                }
+            }
+
+            out.align(2);
+            int vtable = out.position();
+            out.putShort(4 + 2 * fields.size());
+            out.putShort(tableSize);
+            for (int fieldOffset : fieldOffsets)
+                out.putShort(fieldOffset);
+
+            out.align(8);
+            int table = out.position();
+            out.putInt(table - vtable);
+            out.pad(tableSize - 4);
+            for (int id = 0; id < fields.size(); id++) {
+                Field field = fields.get(id);
+                if (field != null && field.item == null)
+                    out.put(table + fieldOffsets[id], field.size, field.value);
+            }
+
+            for (int id = 0; id < fields.size(); id++) {
+                Field field = fields.get(id);
+                if (field != null && field.item != null) {
+                    int at = table + fieldOffsets[id];
+                    out.put(at, 4, field.item.writeTo(out) - at);
+                }
+            }
+            return table;
+        }
+    }
+
+    private static final class Field {
+        final int size;
+        final long value;
+        final Item item;
+
+        Field(int size, long value, Item item) {
+            this.size = size;
+            this.value = value;
+            this.item = item;
+        }
+    }
+
+    static Item string(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        return out -> {
+            out.align(4);
+            int string = out.position();
+            out.putInt(bytes.length);
+            out.put(bytes);
+            out.pad(1);
+            return string;
+        };
+    }
+
+    static Item tables(List<Table> tables) {
+        return out -> {
+            out.align(4);
+            int vector = out.position();
+            out.putInt(tables.size());
+            out.pad(4 * tables.size());
+            for (int i = 0; i < tables.size(); i++) {
+                int at = vector + 4 + 4 * i;
+                out.put(at, 4, tables.get(i).writeTo(out) - at);
+            }
+            return vector;
+        };
+    }
+
+    /**
+     * A vector of structs made only of longs, given one after the other
+     */
+    static Item structs(int longsPerStruct, long[] longs) {
+        return out -> {
+            // the longs have to be aligned, and they come after the length
+            out.align(8);
+            out.pad(4);
+            int vector = out.position();
+            out.putInt(longs.length / longsPerStruct);
+            for (long l : longs)
+                out.putLong(l);
+            return vector;
+        };
+    }
+
+    /**
+     * @return the buffer with the table as its root, padded to a multiple of 8 bytes
+     */
+    static byte[] finish(Table root) {
+        Output out = new Output();
+        out.pad(4);
+        out.put(0, 4, root.writeTo(out));
+        out.align(8);
+        return out.toByteArray();
+    }
+
+    /**
+     * A growing little-endian byte buffer
+     */
+    static final class Output {
+        private byte[] bytes = new byte[256];
+        private int position = 0;
+
+        int position() {
+            return position;
+        }
+
+        void align(int alignment) {
+            pad((alignment - position % alignment) % alignment);
+        }
+
+        void pad(int count) {
+            ensureCapacity(count);
+            position += count;
+        }
+
+        void putShort(int value) {
+            pad(2);
+            put(position - 2, 2, value);
+        }
+
+        void putInt(int value) {
+            pad(4);
+            put(position - 4, 4, value);
+        }
+
+        void putLong(long value) {
+            pad(8);
+            put(position - 8, 8, value);
+        }
+
+        void put(byte[] b) {
+            ensureCapacity(b.length);
+            System.arraycopy(b, 0, bytes, position, b.length);
+            position += b.length;
+        }
+
+        void put(int at, int size, long value) {
+            for (int i = 0; i < size; i++)
+                bytes[at + i] = (byte) (value >>> (8 * i));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, position);
+        }
+
+        private void ensureCapacity(int count) {
+            if (position + count > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, position + count));
+        }
+    }
+
+}
@@ -4,20 +4,30 @@ import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
+import com.google.gson.stream.JsonWriter;
 
 import technology.tabula.Cell;
 import technology.tabula.RectangularTextContainer;
 import technology.tabula.Table;
 import technology.tabula.TextChunk;
+import technology.tabula.TypedTable;
 import technology.tabula.json.RectangularTextContainerSerializer;
 import technology.tabula.json.TableSerializer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.lang.reflect.Modifier.PUBLIC;
 
+/**
+ * Writes tables as JSON, one cell at a time, so the output is never held in memory as a whole.
+ *
+ * The output is the same as serializing the tables with {@link TableSerializer} and
+ * {@link RectangularTextContainerSerializer}. In compact mode the cells only have their text, without their position
+ * and size. Typed, each table also has the {@link TypedTable} types of its columns, and each cell of an integer,
+ * decimal or percent column its value as a number.
+ */
 public class JSONWriter implements Writer {
 
     private static final ExclusionStrategy ALL_CLASSES_SKIPPING_NON_PUBLIC_FIELDS = new ExclusionStrategy() {
@@ -32,30 +42,198 @@ public class JSONWriter implements Writer {
         }
     };
 
+    // Gson instances are thread-safe, so one does for every writer
+    private static final Gson GSON = new GsonBuilder()
+            .addSerializationExclusionStrategy(ALL_CLASSES_SKIPPING_NON_PUBLIC_FIELDS)
+            .registerTypeAdapter(Table.class, TableSerializer.INSTANCE)
+            .registerTypeAdapter(RectangularTextContainer.class, RectangularTextContainerSerializer.INSTANCE)
+            .registerTypeAdapter(Cell.class, RectangularTextContainerSerializer.INSTANCE)
+            .registerTypeAdapter(TextChunk.class, RectangularTextContainerSerializer.INSTANCE)
+            .create();
+
+    private final boolean compact;
+    private final boolean typed;
+
+    public JSONWriter() {
+        this(false);
+    }
+
+    /**
+     * @param compact whether to leave the position and size of each cell out
+     */
+    public JSONWriter(boolean compact) {
+        this(compact, false);
+    }
+
+    /**
+     * @param compact whether to leave the position and size of each cell out
+     * @param typed whether to give each table the types of its columns, and each cell of a number column its value
+     */
+    public JSONWriter(boolean compact, boolean typed) {
+        this.compact = compact;
+        this.typed = typed;
+    }
+
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
     @Override
     public void write(Appendable out, Table table) throws IOException {
-        out.append(gson().toJson(table, Table.class));
+        JsonWriter json = jsonWriter(out);
+        writeTable(json, table);
+        json.flush();
     }
 
     @Override
     public void write(Appendable out, List<Table> tables) throws IOException {
-        Gson gson = gson();
-        JsonArray jsonElements = new JsonArray();
+        JsonWriter json = jsonWriter(out);
+        json.beginArray();
         for (Table table : tables)
-            jsonElements.add(gson.toJsonTree(table, Table.class));
-        out.append(gson.toJson(jsonElements));
+            writeTable(json, table);
+        json.endArray();
+        json.flush();
+    }
+
+    /**
+     * One part for each table, which is the table after a comma for all but the first, between the brackets of the
+     * array
+     */
+    @Override
+    public List<Part> parts(List<Table> tables) {
+        List<Part> parts = new ArrayList<>(tables.size() + 2);
+        parts.add(out -> out.append('['));
+        for (int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
+            boolean first = i == 0;
+            parts.add(out -> {
+                if (!first)
+                    out.append(',');
+                JsonWriter json = jsonWriter(out);
+                writeTable(json, table);
+                json.flush();
+            });
+        }
+        parts.add(out -> out.append(']'));
+        return parts;
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
-    private static Gson gson() {
-        return new GsonBuilder()
-                .addSerializationExclusionStrategy(ALL_CLASSES_SKIPPING_NON_PUBLIC_FIELDS)
-                .registerTypeAdapter(Table.class, TableSerializer.INSTANCE)
-                .registerTypeAdapter(RectangularTextContainer.class, RectangularTextContainerSerializer.INSTANCE)
-                .registerTypeAdapter(Cell.class, RectangularTextContainerSerializer.INSTANCE)
-                .registerTypeAdapter(TextChunk.class, RectangularTextContainerSerializer.INSTANCE)
-                .create();
+    static JsonWriter jsonWriter(Appendable out) throws IOException {
+        JsonWriter json = GSON.newJsonWriter(out instanceof java.io.Writer ? (java.io.Writer) out : new AppendableWriter(out));
+        // like Gson does when it writes a tree, so that infinite sizes are written as Infinity
+        json.setLenient(true);
+        return json;
+    }
+
+    // the same properties, in the same order, as TableSerializer
+    private void writeTable(JsonWriter json, Table table) throws IOException {
+        json.beginObject();
+        json.name("extraction_method").value(table.getExtractionMethod());
+        json.name("page_number").value(table.getPageNumber());
+        json.name("top").value((Number) table.getTop());
+        json.name("left").value((Number) table.getLeft());
+        json.name("width").value(table.getWidth());
+        json.name("height").value(table.getHeight());
+        json.name("right").value((Number) table.getRight());
+        json.name("bottom").value((Number) table.getBottom());
+        TypedTable typedTable = typedTable(table);
+        writeColumnTypes(json, typedTable);
+        json.name("data").beginArray();
+        List<List<RectangularTextContainer>> rows = table.getRows();
+        for (int row = 0; row < rows.size(); row++)
+            writeRow(json, rows.get(row), typedTable, row);
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * @return the table with its columns typed, or null if the writer doesn't type them
+     */
+    TypedTable typedTable(Table table) {
+        return typed ? TypedTable.of(table) : null;
+    }
+
+    static void writeColumnTypes(JsonWriter json, TypedTable typedTable) throws IOException {
+        if (typedTable == null)
+            return;
+        json.name("column_types").beginArray();
+        for (int column = 0; column < typedTable.getColCount(); column++)
+            json.value(typedTable.getColumnType(column).getName());
+        json.endArray();
+    }
+
+    void writeRow(JsonWriter json, List<RectangularTextContainer> row, TypedTable typedTable, int rowIndex) throws IOException {
+        json.beginArray();
+        for (int column = 0; column < row.size(); column++)
+            writeCell(json, row.get(column), typedTable, rowIndex, column);
+        json.endArray();
+    }
+
+    // the same properties, in the same order, as RectangularTextContainerSerializer, and then the value if it's a number
+    private void writeCell(JsonWriter json, RectangularTextContainer<?> cell, TypedTable typedTable, int row, int column) throws IOException {
+        json.beginObject();
+        if (!compact) {
+            json.name("top").value((Number) cell.getTop());
+            json.name("left").value((Number) cell.getLeft());
+            json.name("width").value(cell.getWidth());
+            json.name("height").value(cell.getHeight());
+        }
+        json.name("text").value(cell.getText());
+        if (typedTable != null && !typedTable.isNull(row, column)) {
+            switch (typedTable.getColumnType(column)) {
+                case INTEGER:
+                    json.name("value").value(typedTable.getLongs(column)[row]);
+                    break;
+                case DECIMAL:
+                case PERCENT:
+                    json.name("value").value(typedTable.getDoubles(column)[row]);
+                    break;
+                default:
+                    // dates are already written as ISO dates, and JSON has nothing better for them
+            }
+        }
+        json.endObject();
+    }
+
+    /**
+     * Passes everything written to it straight on to an Appendable
+     */
+    private static final class AppendableWriter extends java.io.Writer {
+        private final Appendable out;
+
+        AppendableWriter(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            out.append(new String(chars, offset, length));
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.append((char) c);
+        }
+
+        @Override
+        public void write(String s, int offset, int length) throws IOException {
+            out.append(s, offset, offset + length);
+        }
+
+        @Override
+        public java.io.Writer append(CharSequence s) throws IOException {
+            out.append(s);
+            return this;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out instanceof java.io.Flushable) {
+                ((java.io.Flushable) out).flush();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
     }
 
 }
@@ -0,0 +1,133 @@
+package technology.tabula.writers;
+
+import com.google.gson.stream.JsonWriter;
+
+import technology.tabula.RectangularTextContainer;
+import technology.tabula.Table;
+import technology.tabula.TypedTable;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes tables as newline-delimited JSON: one JSON object per line, for each table or for each row of each table.
+ *
+ * Every line has the number of the page the table is on, the index of the table among the tables of that page, and
+ * the method the table was extracted with, so the lines can be read on their own. Tables of the same page are
+ * expected to be written together, in one call or consecutive ones, and the index starts over with each call.
+ */
+public class NDJSONWriter extends JSONWriter {
+
+    private final boolean rows;
+
+    public NDJSONWriter() {
+        this(false, false);
+    }
+
+    /**
+     * @param compact whether to leave the position and size of each cell out
+     * @param rows whether to write a line for each row instead of for each table
+     */
+    public NDJSONWriter(boolean compact, boolean rows) {
+        this(compact, rows, false);
+    }
+
+    /**
+     * @param compact whether to leave the position and size of each cell out
+     * @param rows whether to write a line for each row instead of for each table
+     * @param typed whether to give each table line the types of its columns, and each cell of a number column its
+     *              value
+     */
+    public NDJSONWriter(boolean compact, boolean rows, boolean typed) {
+        super(compact, typed);
+        this.rows = rows;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    @Override
+    public void write(Appendable out, Table table) throws IOException {
+        write(out, Collections.singletonList(table));
+    }
+
+    @Override
+    public void write(Appendable out, List<Table> tables) throws IOException {
+        int[] tableIndexes = tableIndexes(tables);
+        for (int i = 0; i < tables.size(); i++)
+            writeTable(out, tables.get(i), tableIndexes[i]);
+
+        // so the lines can be read as soon as they're written
+        if (out instanceof Flushable)
+            ((Flushable) out).flush();
+    }
+
+    /**
+     * One part for each table, which is its line or the lines of its rows
+     */
+    @Override
+    public List<Part> parts(List<Table> tables) {
+        int[] tableIndexes = tableIndexes(tables);
+        List<Part> parts = new ArrayList<>(tables.size());
+        for (int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
+            int tableIndex = tableIndexes[i];
+            parts.add(out -> writeTable(out, table, tableIndex));
+        }
+        return parts;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private static int[] tableIndexes(List<Table> tables) {
+        int[] tableIndexes = new int[tables.size()];
+        for (int i = 1; i < tables.size(); i++) {
+            if (tables.get(i - 1).getPageNumber() == tables.get(i).getPageNumber())
+                tableIndexes[i] = tableIndexes[i - 1] + 1;
+        }
+        return tableIndexes;
+    }
+
+    private void writeTable(Appendable out, Table table, int tableIndex) throws IOException {
+        TypedTable typedTable = typedTable(table);
+
+        if (rows) {
+            List<List<RectangularTextContainer>> tableRows = table.getRows();
+            for (int rowIndex = 0; rowIndex < tableRows.size(); rowIndex++) {
+                JsonWriter json = jsonWriter(out);
+                json.beginObject();
+                writeTableKey(json, table, tableIndex);
+                json.name("row_index").value(rowIndex);
+                json.name("data");
+                writeRow(json, tableRows.get(rowIndex), typedTable, rowIndex);
+                json.endObject();
+                out.append('\n');
+            }
+        } else {
+            JsonWriter json = jsonWriter(out);
+            json.beginObject();
+            writeTableKey(json, table, tableIndex);
+            json.name("top").value((Number) table.getTop());
+            json.name("left").value((Number) table.getLeft());
+            json.name("width").value(table.getWidth());
+            json.name("height").value(table.getHeight());
+            json.name("right").value((Number) table.getRight());
+            json.name("bottom").value((Number) table.getBottom());
+            writeColumnTypes(json, typedTable);
+            json.name("data").beginArray();
+            List<List<RectangularTextContainer>> tableRows = table.getRows();
+            for (int rowIndex = 0; rowIndex < tableRows.size(); rowIndex++)
+                writeRow(json, tableRows.get(rowIndex), typedTable, rowIndex);
+            json.endArray();
+            json.endObject();
+            out.append('\n');
+        }
+    }
+
+    private static void writeTableKey(JsonWriter json, Table table, int tableIndex) throws IOException {
+        json.name("page_number").value(table.getPageNumber());
+        json.name("table_index").value(tableIndex);
+        json.name("extraction_method").value(table.getExtractionMethod());
+    }
+
+}
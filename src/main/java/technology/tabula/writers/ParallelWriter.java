@@ -0,0 +1,146 @@
+package technology.tabula.writers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import technology.tabula.Table;
+
+/**
+ * Writes tables the way another writer does, but serializes the {@link Writer.Part parts} of the output concurrently,
+ * on the common fork-join pool, and writes each one as soon as it and the ones before it are done. The output is the
+ * same as the other writer's, byte for byte.
+ *
+ * Written to a stream, the parts are encoded into byte buffers; written to an Appendable, into strings. Only a few
+ * parts are serialized ahead of the one being written, so the output is never held in memory as a whole.
+ */
+public class ParallelWriter implements Writer {
+
+    private static final int PARALLELISM = ForkJoinPool.getCommonPoolParallelism();
+
+    private final Writer writer;
+
+    public ParallelWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    @Override
+    public void write(Appendable out, Table table) throws IOException {
+        writer.write(out, table);
+    }
+
+    @Override
+    public void write(Appendable out, List<Table> tables) throws IOException {
+        if (out instanceof OutputStream && writer instanceof ArrowWriter) {
+            // written as bytes, not characters, as ArrowWriter does
+            write((OutputStream) out, Charset.defaultCharset(), tables);
+            return;
+        }
+
+        List<Part> parts = writer.parts(tables);
+        if (parts.size() < 2) {
+            writer.write(out, tables);
+            return;
+        }
+        writeInOrder(parts, part -> {
+            StringBuilder text = new StringBuilder();
+            part.writeTo(text);
+            return text;
+        }, out::append);
+        if (out instanceof Flushable)
+            ((Flushable) out).flush();
+    }
+
+    @Override
+    public void write(OutputStream out, Charset charset, List<Table> tables) throws IOException {
+        List<Part> parts = writer.parts(tables);
+        if (parts.size() < 2 || !encodesInPieces(charset)) {
+            writer.write(out, charset, tables);
+            return;
+        }
+        writeInOrder(parts, part -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            part.writeTo(bytes, charset);
+            return bytes;
+        }, bytes -> bytes.writeTo(out));
+        out.flush();
+    }
+
+    @Override
+    public List<Part> parts(List<Table> tables) {
+        return writer.parts(tables);
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private interface Serializer<T> {
+        T serialize(Part part) throws IOException;
+    }
+
+    private interface Emitter<T> {
+        void emit(T serialized) throws IOException;
+    }
+
+    /**
+     * Serializes the parts on the pool, a few ahead of the one being emitted, and emits them in order
+     */
+    private static <T> void writeInOrder(List<Part> parts, Serializer<T> serializer, Emitter<T> emitter) throws IOException {
+        Deque<Future<T>> queue = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < parts.size() || !queue.isEmpty()) {
+                while (next < parts.size() && queue.size() < 2 * PARALLELISM) {
+                    Part part = parts.get(next++);
+                    queue.add(ForkJoinPool.commonPool().submit((Callable<T>) () -> serializer.serialize(part)));
+                }
+                emitter.emit(get(queue.remove()));
+            }
+        } finally {
+            // after a failure, the parts that won't be written
+            for (Future<T> future : queue)
+                future.cancel(false);
+        }
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Whether text encoded a piece at a time is the same as encoded in one go, which it isn't when the charset
+     * starts with a byte order mark, say
+     */
+    private static boolean encodesInPieces(Charset charset) {
+        byte[] piece = "a".getBytes(charset);
+        byte[] whole = "aa".getBytes(charset);
+        return whole.length == 2 * piece.length
+                && Arrays.equals(piece, Arrays.copyOfRange(whole, 0, piece.length))
+                && Arrays.equals(piece, Arrays.copyOfRange(whole, piece.length, whole.length));
+    }
+
+}
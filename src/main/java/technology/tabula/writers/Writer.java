@@ -1,6 +1,11 @@
 package technology.tabula.writers;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.List;
 
 import technology.tabula.Table;
@@ -11,4 +16,54 @@ public interface Writer {
 
     void write(Appendable out, List<Table> tables) throws IOException;
 
+    /**
+     * Writes the tables to a stream of bytes, encoding text in the given charset. The stream is flushed, not closed.
+     */
+    default void write(OutputStream out, Charset charset, List<Table> tables) throws IOException {
+        java.io.Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset), 64 * 1024);
+        write(writer, tables);
+        writer.flush();
+    }
+
+    /**
+     * Splits what would be written for the tables into parts that can each be written on their own, even
+     * concurrently, and that make up the same output when they're written one after the other. By default the only
+     * part is the whole output.
+     */
+    default List<Part> parts(List<Table> tables) {
+        return Collections.singletonList(part(this, tables));
+    }
+
+    /**
+     * The part of the output that the writer writes for the tables on their own
+     */
+    static Part part(Writer writer, List<Table> tables) {
+        return new Part() {
+            @Override
+            public void writeTo(Appendable out) throws IOException {
+                writer.write(out, tables);
+            }
+
+            @Override
+            public void writeTo(OutputStream out, Charset charset) throws IOException {
+                writer.write(out, charset, tables);
+            }
+        };
+    }
+
+    /**
+     * A part of the output of a writer
+     */
+    interface Part {
+
+        void writeTo(Appendable out) throws IOException;
+
+        default void writeTo(OutputStream out, Charset charset) throws IOException {
+            java.io.Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset));
+            writeTo(writer);
+            writer.flush();
+        }
+
+    }
+
 }
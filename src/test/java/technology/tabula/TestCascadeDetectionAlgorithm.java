@@ -0,0 +1,110 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import technology.tabula.detectors.CascadeDetectionAlgorithm;
+import technology.tabula.detectors.CascadeDetectionAlgorithm.Stage;
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+import technology.tabula.detectors.SpreadsheetDetectionAlgorithm;
+import technology.tabula.detectors.VectorDetectionAlgorithm;
+
+public class TestCascadeDetectionAlgorithm {
+
+    private static Page firstPage(PDDocument document) throws IOException {
+        return new ObjectExtractor(document).extract(1);
+    }
+
+    @Test
+    public void testStopsAtRulingsWhenTheyCoverTheText() throws IOException {
+        try (PDDocument document = PDDocument.load(new File("src/test/resources/technology/tabula/schools.pdf"))) {
+            Page page = firstPage(document);
+            CascadeDetectionAlgorithm detectionAlgorithm = new CascadeDetectionAlgorithm();
+
+            List<Rectangle> tables = detectionAlgorithm.detect(page);
+
+            assertEquals(new SpreadsheetDetectionAlgorithm().detect(page), tables);
+            assertEquals(1, detectionAlgorithm.getPagesFinishedAt(Stage.RULINGS));
+            assertEquals(0, detectionAlgorithm.getPagesFinishedAt(Stage.VECTOR));
+            assertEquals(0, detectionAlgorithm.getPagesFinishedAt(Stage.RASTER));
+        }
+    }
+
+    @Test
+    public void testStopsAtVectorWithoutImages() throws IOException {
+        try (PDDocument document = PDDocument.load(new File("src/test/resources/technology/tabula/twotables.pdf"))) {
+            Page page = firstPage(document);
+            CascadeDetectionAlgorithm detectionAlgorithm = new CascadeDetectionAlgorithm();
+
+            List<Rectangle> tables = detectionAlgorithm.detect(page);
+
+            assertEquals(new VectorDetectionAlgorithm().detect(page), tables);
+            assertEquals(1, detectionAlgorithm.getPagesFinishedAt(Stage.VECTOR));
+        }
+    }
+
+    @Test
+    public void testEscalatesToRasterWhenTheCheapStagesDontCoverTheText() throws IOException {
+        try (PDDocument document = PDDocument.load(new File("src/test/resources/technology/tabula/argentina_diputados_voting_record.pdf"))) {
+            Page page = firstPage(document);
+            CascadeDetectionAlgorithm detectionAlgorithm = new CascadeDetectionAlgorithm();
+
+            List<Rectangle> tables = detectionAlgorithm.detect(page);
+
+            assertEquals(new NurminenDetectionAlgorithm().detect(page), tables);
+            assertEquals(1, detectionAlgorithm.getPagesFinishedAt(Stage.RASTER));
+        }
+    }
+
+    @Test
+    public void testSummaryCountsThePagesEachStageFinished() throws IOException {
+        CascadeDetectionAlgorithm detectionAlgorithm = new CascadeDetectionAlgorithm();
+        // the rulings of twotables.pdf contain more than half its text, but not 80% of it
+        CascadeDetectionAlgorithm lenientDetectionAlgorithm = new CascadeDetectionAlgorithm(0.5f, new NurminenDetectionAlgorithm());
+        for (String pdf : new String[]{"schools.pdf", "twotables.pdf"}) {
+            try (PDDocument document = PDDocument.load(new File("src/test/resources/technology/tabula/" + pdf))) {
+                detectionAlgorithm.detect(firstPage(document));
+                lenientDetectionAlgorithm.detect(firstPage(document));
+            }
+        }
+
+        assertEquals("Cascade detection finished 2 pages: 1 at rulings, 1 at vector, 0 at raster (minimum text coverage 0.8)",
+                detectionAlgorithm.getSummary());
+        assertEquals("Cascade detection finished 2 pages: 2 at rulings, 0 at vector, 0 at raster (minimum text coverage 0.5)",
+                lenientDetectionAlgorithm.getSummary());
+    }
+
+    @Test
+    public void testExtractorGuessesWithTheTextCoverageItsSetTo() {
+        TableExtractor extractor = new TableExtractor();
+        extractor.setGuessMethod(GuessMethod.CASCADE);
+        assertEquals(CascadeDetectionAlgorithm.DEFAULT_MINIMUM_TEXT_COVERAGE,
+                ((CascadeDetectionAlgorithm) extractor.getDetectionAlgorithm()).getMinimumTextCoverage(), 0);
+
+        extractor.setGuessMinimumTextCoverage(0.5f);
+        assertEquals(0.5f, ((CascadeDetectionAlgorithm) extractor.getDetectionAlgorithm()).getMinimumTextCoverage(), 0);
+
+        // kept when the resolution changes, and when a share that isn't one is rejected, whatever the method
+        extractor.setGuessResolution(288, 0);
+        extractor.setGuessMethod(GuessMethod.RASTER);
+        try {
+            extractor.setGuessMinimumTextCoverage(1.5f);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        extractor.setGuessMethod(GuessMethod.CASCADE);
+        assertEquals(0.5f, ((CascadeDetectionAlgorithm) extractor.getDetectionAlgorithm()).getMinimumTextCoverage(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinimumTextCoverageMustBeAShare() {
+        new CascadeDetectionAlgorithm(1.5f, new NurminenDetectionAlgorithm());
+    }
+}
@@ -42,4 +42,21 @@ public class TestCell {
 		
 		}
 
+	@Test
+	public void testGetTextOrdersChunksOnceAndDoesNotMutate() {
+		Cell cell = new Cell(0, 0, 100, 30);
+		TextChunk second = new TextChunk(new TextElement(15, 0, 10, 5, PDType1Font.HELVETICA_BOLD, 10, "world", 5));
+		TextChunk first = new TextChunk(new TextElement(0, 0, 10, 5, PDType1Font.HELVETICA_BOLD, 10, "hello", 5));
+		List<TextChunk> tList = new ArrayList<>();
+		tList.add(second);
+		tList.add(first);
+		cell.setTextElements(tList);
+
+		assertSame(first, cell.getTextElements().get(0));
+		assertEquals("hello\rworld", cell.getText());
+		assertEquals("helloworld", cell.getText(false));
+		assertSame(cell.getText(true), cell.getText(true));
+		assertSame(first, cell.getTextElements().get(0));
+	}
+
 }
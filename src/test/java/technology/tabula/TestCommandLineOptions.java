@@ -0,0 +1,115 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.ParseException;
+import org.junit.Test;
+
+import technology.tabula.detectors.CascadeDetectionAlgorithm;
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+
+public class TestCommandLineOptions {
+
+    private static CommandLine parse(String... args) throws ParseException {
+        return new DefaultParser().parse(CommandLineOptions.buildOptions(), args);
+    }
+
+    @Test
+    public void testGuessMethodOption() throws ParseException {
+        CommandLine line = parse("-g", "--guess-method=vector", "file.pdf");
+        assertTrue(line.hasOption('g'));
+        assertEquals(GuessMethod.VECTOR, CommandLineOptions.whichGuessMethod(line));
+        assertArrayEquals(new String[]{"file.pdf"}, line.getArgs());
+
+        line = parse("--guess", "--guess-method", "cascade", "file.pdf");
+        assertEquals(GuessMethod.CASCADE, CommandLineOptions.whichGuessMethod(line));
+        assertArrayEquals(new String[]{"file.pdf"}, line.getArgs());
+    }
+
+    @Test
+    public void testGuessIsAFlag() throws ParseException {
+        // guessing with the default method, and the file name isn't taken for one
+        CommandLine line = parse("-g", "file.pdf");
+        assertTrue(line.hasOption('g'));
+        assertEquals(GuessMethod.RASTER, CommandLineOptions.whichGuessMethod(line));
+        assertArrayEquals(new String[]{"file.pdf"}, line.getArgs());
+
+        // and it can be grouped with other flags
+        line = parse("-gl", "file.pdf");
+        assertTrue(line.hasOption('g'));
+        assertTrue(line.hasOption('l'));
+        assertArrayEquals(new String[]{"file.pdf"}, line.getArgs());
+    }
+
+    @Test(expected = ParseException.class)
+    public void testUnknownGuessMethodIsRejected() throws ParseException {
+        CommandLineOptions.whichGuessMethod(parse("-g", "--guess-method=vectr", "file.pdf"));
+    }
+
+    @Test
+    public void testGuessResolutionOptions() throws ParseException {
+        CommandLine line = parse("-g", "file.pdf");
+        assertEquals(NurminenDetectionAlgorithm.DEFAULT_RESOLUTION, CommandLineOptions.whichGuessResolution(line));
+        assertEquals(0, CommandLineOptions.whichGuessCoarseResolution(line));
+
+        line = parse("-g", "--guess-resolution=288", "--guess-coarse-resolution", "72", "file.pdf");
+        assertEquals(288, CommandLineOptions.whichGuessResolution(line));
+        assertEquals(72, CommandLineOptions.whichGuessCoarseResolution(line));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testGuessResolutionMustBeANumber() throws ParseException {
+        CommandLineOptions.whichGuessResolution(parse("-g", "--guess-resolution=high", "file.pdf"));
+    }
+
+    @Test
+    public void testGuessTextCoverageOption() throws ParseException {
+        assertEquals(CascadeDetectionAlgorithm.DEFAULT_MINIMUM_TEXT_COVERAGE,
+                CommandLineOptions.whichGuessTextCoverage(parse("-g", "file.pdf")), 0);
+        assertEquals(0.5f, CommandLineOptions.whichGuessTextCoverage(
+                parse("-g", "--guess-method=cascade", "--guess-text-coverage", "0.5", "file.pdf")), 0);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testGuessTextCoverageMustBeANumber() throws ParseException {
+        CommandLineOptions.whichGuessTextCoverage(parse("-g", "--guess-text-coverage=most", "file.pdf"));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testGuessTextCoverageMustBeAShare() throws ParseException {
+        new CommandLineApp(new StringBuilder(), parse("-g", "--guess-method=cascade", "--guess-text-coverage=80", "file.pdf"));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testGuessSummaryOnlyAppliesToCascade() throws ParseException {
+        new CommandLineApp(new StringBuilder(), parse("-g", "--guess-summary", "file.pdf"));
+    }
+
+    @Test
+    public void testGuessSummaryIsPrintedToStderr() throws ParseException {
+        CommandLine line = parse("-t", "-g", "--guess-method=cascade", "--guess-summary", "--guess-text-coverage=0.5",
+                "-p", "1", "src/test/resources/technology/tabula/schools.pdf");
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream stderr = System.err;
+        System.setErr(new PrintStream(err, true));
+        try {
+            new CommandLineApp(new StringBuilder(), line).extractTables(line);
+        } finally {
+            System.setErr(stderr);
+        }
+
+        assertTrue(err.toString(), err.toString().contains(
+                "Cascade detection finished 1 pages: 1 at rulings, 0 at vector, 0 at raster (minimum text coverage 0.5)"));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testGuessDoesNotTakeAMethod() throws ParseException {
+        parse("--guess=vector", "file.pdf");
+    }
+
+}
@@ -0,0 +1,156 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import technology.tabula.detectors.VectorDetectionAlgorithm;
+import technology.tabula.extractors.BasicExtractionAlgorithm;
+
+public class TestConcurrentExtraction {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 3;
+
+    private static final String[] PDFS = {
+            "src/test/resources/technology/tabula/eu-002.pdf",
+            "src/test/resources/technology/tabula/schools.pdf",
+            "src/test/resources/technology/tabula/twotables.pdf",
+            "src/test/resources/technology/tabula/us-017.pdf"
+    };
+
+    @Test
+    public void testSharedExtractorsAndPages() throws Exception {
+        TableExtractor decide = new TableExtractor();
+        decide.setMethod(ExtractionMethod.DECIDE);
+
+        TableExtractor columns = new TableExtractor();
+        List<Float> positions = new ArrayList<>(Arrays.asList(100f, 200f, 300f, 400f));
+        columns.setVerticalRulingPositions(positions);
+        // the extractor keeps its own copy
+        positions.clear();
+
+        TableExtractor lattice = new TableExtractor();
+        lattice.setMethod(ExtractionMethod.SPREADSHEET);
+
+        BasicExtractionAlgorithm stream = new BasicExtractionAlgorithm();
+        VectorDetectionAlgorithm detector = new VectorDetectionAlgorithm();
+
+        List<String> expected = new ArrayList<>();
+        for (String pdf : PDFS) {
+            expected.add(extractEverything(UtilsForTesting.getPage(pdf, 1), decide, columns, lattice, stream, detector));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // new pages every round, so that the threads work out their caches at the same time
+                List<Page> pages = new ArrayList<>();
+                for (String pdf : PDFS) {
+                    pages.add(UtilsForTesting.getPage(pdf, 1));
+                }
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<String>>> results = new ArrayList<>();
+                for (int thread = 0; thread < THREADS; thread++) {
+                    final int offset = thread;
+                    results.add(executor.submit(new Callable<List<String>>() {
+                        @Override
+                        public List<String> call() throws Exception {
+                            start.await();
+                            String[] extracted = new String[pages.size()];
+                            for (int i = 0; i < pages.size(); i++) {
+                                // each thread starts with a different page
+                                int page = (i + offset) % pages.size();
+                                extracted[page] = extractEverything(pages.get(page), decide, columns, lattice, stream,
+                                        detector);
+                            }
+                            return Arrays.asList(extracted);
+                        }
+                    }));
+                }
+                start.countDown();
+
+                for (Future<List<String>> result : results) {
+                    assertEquals(expected, result.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelAreasKeepTheirOrder() throws Exception {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/us-017.pdf", 1);
+        List<Rectangle> areas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            areas.add(new Rectangle(70 * i, 0, (float) page.getWidth(), 80));
+        }
+
+        for (ExtractionMethod method : Arrays.asList(ExtractionMethod.BASIC, ExtractionMethod.SPREADSHEET,
+                ExtractionMethod.DECIDE)) {
+            TableExtractor sequential = new TableExtractor();
+            sequential.setMethod(method);
+            TableExtractor parallel = new TableExtractor();
+            parallel.setMethod(method);
+            parallel.setParallelAreas(true);
+
+            StringBuilder expected = new StringBuilder();
+            appendTables(expected, sequential.extractTables(page, areas));
+            appendTables(expected, sequential.extractTables(page));
+            StringBuilder actual = new StringBuilder();
+            appendTables(actual, parallel.extractTables(page, areas));
+            appendTables(actual, parallel.extractTables(page));
+
+            assertEquals(method.toString(), expected.toString(), actual.toString());
+        }
+
+        TableExtractor sequential = new TableExtractor();
+        sequential.setGuess(true);
+        sequential.setGuessMethod(GuessMethod.VECTOR);
+        TableExtractor parallel = new TableExtractor();
+        parallel.setGuess(true);
+        parallel.setGuessMethod(GuessMethod.VECTOR);
+        parallel.setParallelAreas(true);
+
+        StringBuilder expected = new StringBuilder();
+        appendTables(expected, sequential.extractTablesBasic(page));
+        StringBuilder actual = new StringBuilder();
+        appendTables(actual, parallel.extractTablesBasic(page));
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private static String extractEverything(Page page, TableExtractor decide, TableExtractor columns,
+                                            TableExtractor lattice, BasicExtractionAlgorithm stream,
+                                            VectorDetectionAlgorithm detector) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        appendTables(sb, decide.extractTables(page));
+        appendTables(sb, columns.extractTables(page));
+        appendTables(sb, lattice.extractTables(page));
+        appendTables(sb, stream.extract(page));
+        appendTables(sb, stream.extract(page, Arrays.asList(150f, 250f)));
+        for (Rectangle area : detector.detect(page)) {
+            sb.append(area).append('\n');
+            appendTables(sb, stream.extract(page.getArea(area)));
+        }
+        return sb.toString();
+    }
+
+    private static void appendTables(StringBuilder sb, List<? extends Table> tables) {
+        for (Table table : tables) {
+            sb.append(Arrays.deepToString(UtilsForTesting.tableToArrayOfRows(table))).append('\n');
+        }
+        sb.append("--\n");
+    }
+}
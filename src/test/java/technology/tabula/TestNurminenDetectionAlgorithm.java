@@ -0,0 +1,126 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.Test;
+
+import technology.tabula.detectors.CascadeDetectionAlgorithm;
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+
+public class TestNurminenDetectionAlgorithm {
+
+    private static final String TWO_TABLES_PDF = "src/test/resources/technology/tabula/twotables.pdf";
+
+    @Test
+    public void testCoarseToFineFindsTheSameTables() throws IOException {
+        try (PDDocument document = PDDocument.load(new File(TWO_TABLES_PDF))) {
+            Page page = new ObjectExtractor(document).extract(1);
+
+            List<Rectangle> tables = new NurminenDetectionAlgorithm().detect(page);
+            List<Rectangle> coarseToFineTables = new NurminenDetectionAlgorithm(144, 72).detect(page);
+
+            assertEquals(2, tables.size());
+            assertEquals(tables, coarseToFineTables);
+        }
+    }
+
+    @Test
+    public void testResolutionIsConfigurable() throws IOException {
+        NurminenDetectionAlgorithm detectionAlgorithm = new NurminenDetectionAlgorithm(288);
+        assertEquals(288, detectionAlgorithm.getResolution());
+        assertEquals(0, detectionAlgorithm.getCoarseResolution());
+
+        try (PDDocument document = PDDocument.load(new File(TWO_TABLES_PDF))) {
+            Page page = new ObjectExtractor(document).extract(1);
+            assertEquals(2, detectionAlgorithm.detect(page).size());
+        }
+    }
+
+    @Test
+    public void testExtractorGuessesAtTheResolutionItsSetTo() {
+        TableExtractor extractor = new TableExtractor();
+        extractor.setGuessResolution(288, 72);
+        NurminenDetectionAlgorithm detectionAlgorithm = (NurminenDetectionAlgorithm) extractor.getDetectionAlgorithm();
+        assertEquals(288, detectionAlgorithm.getResolution());
+        assertEquals(72, detectionAlgorithm.getCoarseResolution());
+
+        // kept when the method changes
+        extractor.setGuessMethod(GuessMethod.CASCADE);
+        detectionAlgorithm = ((CascadeDetectionAlgorithm) extractor.getDetectionAlgorithm()).getRasterDetector();
+        assertEquals(288, detectionAlgorithm.getResolution());
+        assertEquals(72, detectionAlgorithm.getCoarseResolution());
+    }
+
+    @Test
+    public void testExtractorKeepsItsResolutionWhenTheNewOneIsRejected() {
+        TableExtractor extractor = new TableExtractor();
+        try {
+            extractor.setGuessResolution(72, 144);
+            fail();
+        } catch (IllegalArgumentException e) {
+            NurminenDetectionAlgorithm detectionAlgorithm = (NurminenDetectionAlgorithm) extractor.getDetectionAlgorithm();
+            assertEquals(NurminenDetectionAlgorithm.DEFAULT_RESOLUTION, detectionAlgorithm.getResolution());
+        }
+        extractor.setGuessMethod(GuessMethod.RASTER);
+        assertEquals(NurminenDetectionAlgorithm.DEFAULT_RESOLUTION,
+                ((NurminenDetectionAlgorithm) extractor.getDetectionAlgorithm()).getResolution());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCoarseResolutionMustBeLower() {
+        new NurminenDetectionAlgorithm(144, 144);
+    }
+
+    @Test
+    public void testLargePageIsScannedInStrips() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            // an A0 page is too big to render in one go at the default resolution
+            PDPage pdPage = new PDPage(PDRectangle.A0);
+            document.addPage(pdPage);
+
+            // a 4x20 grid that crosses several strips, with some text in it
+            float left = 200, top = 3000, cellWidth = 150, cellHeight = 40;
+            try (PDPageContentStream contents = new PDPageContentStream(document, pdPage)) {
+                for (int row = 0; row <= 20; row++) {
+                    contents.moveTo(left, top - row * cellHeight);
+                    contents.lineTo(left + 4 * cellWidth, top - row * cellHeight);
+                }
+                for (int column = 0; column <= 4; column++) {
+                    contents.moveTo(left + column * cellWidth, top);
+                    contents.lineTo(left + column * cellWidth, top - 20 * cellHeight);
+                }
+                contents.stroke();
+
+                contents.setFont(PDType1Font.HELVETICA, 12);
+                for (int row = 0; row < 20; row++) {
+                    for (int column = 0; column < 4; column++) {
+                        contents.beginText();
+                        contents.newLineAtOffset(left + column * cellWidth + 10, top - (row + 1) * cellHeight + 15);
+                        contents.showText("Cell " + row + "," + column);
+                        contents.endText();
+                    }
+                }
+            }
+
+            Page page = new ObjectExtractor(document).extract(1);
+            List<Rectangle> tables = new NurminenDetectionAlgorithm().detect(page);
+
+            assertEquals(1, tables.size());
+            Rectangle table = tables.get(0);
+            float pageHeight = PDRectangle.A0.getHeight();
+            assertEquals(left, table.getLeft(), 5);
+            assertEquals(pageHeight - top, table.getTop(), 5);
+            assertEquals(left + 4 * cellWidth, table.getRight(), 5);
+            assertEquals(pageHeight - top + 20 * cellHeight, table.getBottom(), 5);
+        }
+    }
+}
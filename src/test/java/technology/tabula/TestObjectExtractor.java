@@ -5,9 +5,15 @@ import static org.junit.Assert.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.junit.Test;
 
 public class TestObjectExtractor {
@@ -146,4 +152,32 @@ public class TestObjectExtractor {
             fail("NPE in ObjectExtractor " + e.toString());
         }
     }
+
+    @Test
+    public void testFontUsedOnSeveralPagesIsMeasuredOnce() throws IOException {
+        Map<COSDictionary, Integer> measurements = new HashMap<>();
+        Map<COSDictionary, Set<Integer>> pagesOfFont = new HashMap<>();
+        int[] pageNumber = new int[1];
+        FontMetricsCache fontMetrics = new FontMetricsCache() {
+            @Override
+            float getFontHeight(PDFont font, FontHeightComputation computation) throws IOException {
+                pagesOfFont.computeIfAbsent(font.getCOSObject(), key -> new HashSet<>()).add(pageNumber[0]);
+                return super.getFontHeight(font, f -> {
+                    measurements.merge(f.getCOSObject(), 1, Integer::sum);
+                    return computation.computeFontHeight(f);
+                });
+            }
+        };
+
+        try (PDDocument document = PDDocument.load(new File("src/test/resources/technology/tabula/us-017.pdf"))) {
+            for (pageNumber[0] = 1; pageNumber[0] <= document.getNumberOfPages(); pageNumber[0]++) {
+                new TextStripper(document, pageNumber[0], fontMetrics).process();
+            }
+        }
+
+        assertTrue(pagesOfFont.values().stream().anyMatch(pages -> pages.size() > 1));
+        for (int count : measurements.values()) {
+            assertEquals(1, count);
+        }
+    }
 }
@@ -7,7 +7,7 @@ public class TestOutputFormat {
     
     @Test
     public void testFormatNames() {
-        String[] expectedNames = {"CSV", "TSV", "JSON"};
+        String[] expectedNames = {"CSV", "TSV", "JSON", "NDJSON", "ARROW"};
         String[] actualNames = OutputFormat.formatNames();
 
         assertArrayEquals(expectedNames, actualNames);
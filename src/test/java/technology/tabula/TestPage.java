@@ -0,0 +1,150 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import technology.tabula.detectors.DetectionAlgorithm;
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+import technology.tabula.detectors.SpreadsheetDetectionAlgorithm;
+import technology.tabula.detectors.VectorDetectionAlgorithm;
+import technology.tabula.extractors.BasicExtractionAlgorithm;
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+
+public class TestPage {
+
+    @Test
+    public void testArtifactsAreComputedOnce() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/eu-002.pdf", 1);
+
+        assertSame(page.getTextChunks(), page.getTextChunks());
+        assertSame(page.getTextLines(), page.getTextLines());
+        assertSame(page.getArtifact("answer", 1, () -> 42), page.getArtifact("answer", 1, () -> 43));
+        assertEquals(43, (int) page.getArtifact("answer", 2, () -> 43));
+    }
+
+    @Test
+    public void testAddingRulingDropsArtifacts() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/eu-002.pdf", 1);
+
+        List<Line> lines = page.getTextLines();
+        page.addRuling(new Ruling(10, 10, 100, 0));
+
+        assertNotSame(lines, page.getTextLines());
+        assertEquals(7, (int) page.getArtifact("answer", null, () -> 7));
+        page.addRuling(new Ruling(20, 10, 100, 0));
+        assertEquals(8, (int) page.getArtifact("answer", null, () -> 8));
+    }
+
+    private static List<Ruling> columnRulings(Page page, float... lefts) {
+        List<Ruling> rulings = new ArrayList<>();
+        for (float left : lefts) {
+            rulings.add(new Ruling(page.getTop(), left, 0, (float) page.getHeight()));
+        }
+        return rulings;
+    }
+
+    @Test
+    public void testArtifactsOfEqualRulingsAreShared() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/eu-002.pdf", 1);
+
+        List<Ruling> rulings = columnRulings(page, 100, 200, 300);
+        List<Line> lines = page.getTextLines(rulings);
+        assertSame(page.getTextChunks(rulings), page.getTextChunks(columnRulings(page, 100, 200, 300)));
+        assertSame(lines, page.getTextLines(columnRulings(page, 100, 200, 300)));
+        assertNotSame(lines, page.getTextLines(columnRulings(page, 100, 200, 310)));
+
+        // stream extraction with column positions builds its own rulings each time, and finds the lines there
+        new BasicExtractionAlgorithm().extract(page, Arrays.asList(100f, 200f, 300f));
+        new BasicExtractionAlgorithm().extract(page, Arrays.asList(100f, 200f, 300f));
+        assertSame(lines, page.getTextLines(columnRulings(page, 100, 200, 300)));
+
+        // moving a ruling afterwards doesn't change what it was worked out from
+        rulings.get(0).setPosition(110);
+        assertNotSame(lines, page.getTextLines(rulings));
+        assertSame(lines, page.getTextLines(columnRulings(page, 100, 200, 300)));
+
+        page = UtilsForTesting.getPage("src/test/resources/technology/tabula/schools.pdf", 1);
+        List<Ruling> horizontals = new ArrayList<>();
+        List<Ruling> verticals = new ArrayList<>();
+        for (Ruling ruling : page.getHorizontalRulings()) {
+            horizontals.add(new Ruling(ruling.getP1(), ruling.getP2()));
+        }
+        for (Ruling ruling : page.getVerticalRulings()) {
+            verticals.add(new Ruling(ruling.getP1(), ruling.getP2()));
+        }
+        assertSame(SpreadsheetExtractionAlgorithm.findCells(page, page.getHorizontalRulings(), page.getVerticalRulings()),
+                SpreadsheetExtractionAlgorithm.findCells(page, horizontals, verticals));
+    }
+
+    @Test
+    public void testDetectedTablesAreKeptAndHandedOutAsCopies() throws IOException {
+        // kept open for the page to be rendered
+        try (PDDocument document = PDDocument.load(new File("src/test/resources/technology/tabula/twotables.pdf"))) {
+            Page page = new ObjectExtractor(document).extract(1);
+
+            for (DetectionAlgorithm detector : Arrays.asList(new VectorDetectionAlgorithm(), new NurminenDetectionAlgorithm())) {
+                List<Rectangle> tables = detector.detect(page);
+                assertFalse(tables.isEmpty());
+                List<Rectangle> expected = new ArrayList<>();
+                for (Rectangle table : tables) {
+                    Rectangle copy = new Rectangle();
+                    copy.setRect(table);
+                    expected.add(copy);
+                    table.setLeft(0);
+                }
+                tables.clear();
+
+                assertEquals(expected, detector.detect(page));
+            }
+            // the vector tables are kept on the page, not found again
+            assertEquals(2, page.<List<Rectangle>>getArtifact("vectorTableAreas", null, () -> null).size());
+        }
+    }
+
+    @Test
+    public void testExtractingTwiceGivesSameTables() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/eu-002.pdf", 1);
+        BasicExtractionAlgorithm bea = new BasicExtractionAlgorithm();
+
+        String[][] rows = UtilsForTesting.tableToArrayOfRows(bea.extract(page).get(0));
+        assertArrayEquals(rows, UtilsForTesting.tableToArrayOfRows(bea.extract(page).get(0)));
+
+        page = UtilsForTesting.getPage("src/test/resources/technology/tabula/schools.pdf", 1);
+        SpreadsheetExtractionAlgorithm sea = new SpreadsheetExtractionAlgorithm();
+
+        List<Rectangle> areas = new SpreadsheetDetectionAlgorithm().detect(page);
+        List<Table> tables = sea.extract(page);
+        assertEquals(areas.size(), tables.size());
+        List<Table> tablesAgain = sea.extract(page);
+        for (int i = 0; i < tables.size(); i++) {
+            assertArrayEquals(UtilsForTesting.tableToArrayOfRows(tables.get(i)),
+                    UtilsForTesting.tableToArrayOfRows(tablesAgain.get(i)));
+        }
+    }
+
+    @Test
+    public void testAreaHasTextAndCroppedRulingsOfPage() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/schools.pdf", 1);
+        Rectangle area = new Rectangle(100, 50, 300, 200);
+
+        Page pageArea = page.getArea(area);
+
+        assertEquals(page.getText(area), pageArea.getText());
+        List<Ruling> expectedRulings = Ruling.cropRulingsToArea(page.getRulings(), area);
+        List<Ruling> areaRulings = pageArea.getUnprocessedRulings();
+        // the cropped rulings, then the border of the area
+        assertEquals(expectedRulings, areaRulings.subList(0, areaRulings.size() - 4));
+        assertEquals(new Ruling(100, 50, 300, 0), areaRulings.get(areaRulings.size() - 4));
+        Ruling leftBorder = areaRulings.get(areaRulings.size() - 1);
+        assertTrue(leftBorder.vertical());
+        assertEquals(50, leftBorder.getLeft(), 0);
+    }
+}
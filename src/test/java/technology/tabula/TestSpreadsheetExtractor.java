@@ -544,4 +544,46 @@ public class TestSpreadsheetExtractor {
         page.getPDDoc().close();
     }    
 
+
+    @Test
+    public void testAssignTextToCellsMatchesTextOfEachCell() throws IOException {
+        String[][] pages = {
+                { "spanning_cells.pdf", "1" }, { "china.pdf", "1" }, { "us-017.pdf", "2" }, { "20.pdf", "1" },
+                { "us-024.pdf", "1" }, { "frx_2012_disclosure.pdf", "1" }, { "sydney_disclosure_contract.pdf", "1" },
+                { "arabic.pdf", "1" }, { "failing_sort.pdf", "1" } };
+        for (String[] p : pages) {
+            Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/" + p[0], Integer.parseInt(p[1]));
+            List<Ruling> horizontal = new ArrayList<>();
+            List<Ruling> vertical = new ArrayList<>();
+            for (Ruling r : page.getRulings()) {
+                if (r.horizontal()) {
+                    horizontal.add(r);
+                } else if (r.vertical()) {
+                    vertical.add(r);
+                }
+            }
+            horizontal = Ruling.collapseOrientedRulings(horizontal);
+            vertical = Ruling.collapseOrientedRulings(vertical);
+
+            List<Cell> swept = new ArrayList<>();
+            List<Cell> eachOnItsOwn = new ArrayList<>();
+            for (Cell c : SpreadsheetExtractionAlgorithm.findCells(page, horizontal, vertical)) {
+                swept.add(new Cell(c.y, c.x, c.width, c.height));
+                Cell cell = new Cell(c.y, c.x, c.width, c.height);
+                cell.setTextElements(TextElement.mergeWords(page.getText(cell)));
+                eachOnItsOwn.add(cell);
+            }
+            assertFalse(p[0], swept.isEmpty());
+            SpreadsheetExtractionAlgorithm.assignTextToCells(page.getText(), swept);
+
+            for (int i = 0; i < swept.size(); i++) {
+                List<TextChunk> expected = eachOnItsOwn.get(i).getTextElements();
+                List<TextChunk> actual = swept.get(i).getTextElements();
+                assertEquals(p[0] + " cell " + i, expected.size(), actual.size());
+                for (int j = 0; j < expected.size(); j++) {
+                    assertEquals(p[0] + " cell " + i, expected.get(j).getTextElements(), actual.get(j).getTextElements());
+                }
+            }
+        }
+    }
 }
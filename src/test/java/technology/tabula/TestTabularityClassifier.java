@@ -0,0 +1,44 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+import technology.tabula.extractors.TabularityClassifier;
+
+public class TestTabularityClassifier {
+
+    @Test
+    public void testSpreadsheetWithNoBoundingFrameIsTabular() throws IOException {
+        Page page = UtilsForTesting.getAreaFromPage("src/test/resources/technology/tabula/spreadsheet_no_bounding_frame.pdf", 1,
+                150.56f, 58.9f, 654.7f, 536.12f);
+
+        assertTrue(new TabularityClassifier().isTabular(page));
+        page.getPDDoc().close();
+    }
+
+    @Test
+    public void testAgreesWithFullExtraction() throws IOException {
+        String[] pdfs = {"schools.pdf", "campaign_donors.pdf", "twotables.pdf", "us-007.pdf", "eu-002.pdf", "MultiColumn.pdf"};
+
+        for (String pdf : pdfs) {
+            Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/" + pdf, 1);
+            Page samePage = UtilsForTesting.getPage("src/test/resources/technology/tabula/" + pdf, 1);
+
+            assertEquals(pdf, new SpreadsheetExtractionAlgorithm().isTabular(page),
+                    new TabularityClassifier().isTabular(samePage));
+            page.getPDDoc().close();
+            samePage.getPDDoc().close();
+        }
+    }
+
+    @Test
+    public void testPageWithoutTextIsNotTabular() throws IOException {
+        Page page = UtilsForTesting.getAreaFromFirstPage("src/test/resources/technology/tabula/twotables.pdf", 0, 0, 1, 1);
+        assertFalse(new TabularityClassifier().isTabular(page));
+        page.getPDDoc().close();
+    }
+}
@@ -200,8 +200,21 @@ public class TestTextElement {
 		Assert.assertEquals(2, words.size());
 		Assert.assertEquals(expectedWords, words);
 		
-	}	
-	
-	
+	}
+
+	@Test
+	public void groupByDirectionalityKeepsLeftToRightChunks() {
+
+		TextChunk ltr = new TextChunk(new TextElement(0f, 0f, 10f, 20f, PDType1Font.HELVETICA, 1f, "1", 1f));
+		ltr.add(new TextElement(0f, 10f, 10f, 20f, PDType1Font.HELVETICA, 1f, ",", 1f));
+		ltr.add(new TextElement(0f, 20f, 10f, 20f, PDType1Font.HELVETICA, 1f, "5", 1f));
+		Assert.assertSame(ltr, ltr.groupByDirectionality(true));
+
+		TextChunk rtl = new TextChunk(new TextElement(0f, 0f, 10f, 20f, PDType1Font.HELVETICA, 1f, "\u05d0", 1f));
+		rtl.add(new TextElement(0f, 10f, 10f, 20f, PDType1Font.HELVETICA, 1f, "\u05d1", 1f));
+		TextChunk grouped = rtl.groupByDirectionality(false);
+		Assert.assertEquals("\u05d1\u05d0", grouped.getText());
+
+	}
 
 }
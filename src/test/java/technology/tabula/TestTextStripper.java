@@ -0,0 +1,119 @@
+package technology.tabula;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.TextPosition;
+import org.apache.pdfbox.util.Matrix;
+import org.junit.Test;
+
+import technology.tabula.TextStripper.GlyphRejection;
+
+public class TestTextStripper {
+
+    private static TextPosition glyph(String unicode, float height, int fontSizeInPt) {
+        return new TextPosition(0, 600, 800, new Matrix(), 10, 10, height, 5, 3, unicode, new int[] { 32 },
+                PDType1Font.HELVETICA, fontSizeInPt, fontSizeInPt);
+    }
+
+    private static List<String> strip(TextStripper stripper, TextPosition... glyphs) throws IOException {
+        List<TextPosition> textPositions = new ArrayList<>();
+        for (TextPosition glyph : glyphs) {
+            textPositions.add(glyph);
+        }
+        stripper.writeString("", textPositions);
+
+        List<String> texts = new ArrayList<>();
+        for (TextElement te : stripper.getTextElements()) {
+            texts.add(te.getText());
+        }
+        return texts;
+    }
+
+    @Test
+    public void testKeepsGlyphsWithAPrintableCharacter() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            TextStripper stripper = new TextStripper(document, 1);
+            List<String> texts = strip(stripper,
+                    glyph("a", 10, 10),
+                    glyph("\u0001", 10, 10), // ISO control
+                    glyph("\uFFFD", 10, 10), // Specials
+                    glyph("\u0001b", 10, 10),
+                    glyph("\u00A0", 10, 10),
+                    glyph("é", 10, 10));
+
+            assertEquals(4, texts.size());
+            assertEquals("a", texts.get(0));
+            assertEquals("\u0001b", texts.get(1));
+            // non-breaking spaces become spaces
+            assertEquals(" ", texts.get(2));
+            assertEquals("é", texts.get(3));
+            assertEquals(2, stripper.getRejectedGlyphCount(GlyphRejection.NOT_PRINTABLE));
+            assertEquals(0, stripper.getRejectedGlyphCount(GlyphRejection.TALL_BLANK));
+            assertEquals(0, stripper.getRejectedGlyphCount(GlyphRejection.BLANK_FONT_SIZE));
+        }
+    }
+
+    @Test
+    public void testDropsBlanksMuchTallerThanAverage() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            TextStripper stripper = new TextStripper(document, 1);
+            TextPosition[] glyphs = new TextPosition[22];
+            for (int i = 0; i < 20; i++) {
+                glyphs[i] = glyph("x", 10, 10);
+            }
+            glyphs[20] = glyph(" ", 100, 10);
+            // as tall, but not blank
+            glyphs[21] = glyph("y", 100, 10);
+            List<String> texts = strip(stripper, glyphs);
+
+            assertEquals(21, texts.size());
+            assertEquals("y", texts.get(20));
+            assertEquals(1, stripper.getRejectedGlyphCount(GlyphRejection.TALL_BLANK));
+            assertEquals(0, stripper.getRejectedGlyphCount(GlyphRejection.NOT_PRINTABLE));
+            assertEquals(0, stripper.getRejectedGlyphCount(GlyphRejection.BLANK_FONT_SIZE));
+        }
+    }
+
+    @Test
+    public void testDropsBlanksOfUnreasonableFontSize() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            TextStripper stripper = new TextStripper(document, 1);
+            List<String> texts = strip(stripper,
+                    glyph(" ", 10, 41),
+                    glyph(" ", 10, 1),
+                    glyph(" ", 10, 12),
+                    // not blank, so kept whatever its size
+                    glyph("z", 10, 41));
+
+            assertEquals(2, texts.size());
+            assertEquals(" ", texts.get(0));
+            assertEquals("z", texts.get(1));
+            assertEquals(2, stripper.getRejectedGlyphCount(GlyphRejection.BLANK_FONT_SIZE));
+            assertEquals(0, stripper.getRejectedGlyphCount(GlyphRejection.TALL_BLANK));
+        }
+    }
+
+    @Test
+    public void testPageReportsRejectedGlyphs() throws IOException {
+        String path = "src/test/resources/technology/tabula/argentina_diputados_voting_record.pdf";
+        try (PDDocument document = PDDocument.load(new File(path))) {
+            TextStripper stripper = new TextStripper(document, 1);
+            stripper.process();
+
+            Page page = new ObjectExtractor(document).extract(1);
+            Page area = page.getArea(0, 0, 100, 100);
+            for (GlyphRejection reason : GlyphRejection.values()) {
+                assertEquals(reason.name(), stripper.getRejectedGlyphCount(reason), page.getRejectedGlyphCount(reason));
+                assertEquals(reason.name(), page.getRejectedGlyphCount(reason), area.getRejectedGlyphCount(reason));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package technology.tabula;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.Test;
+
+public class TestTypedTable {
+
+    private static Table tableOf(String[][] cells) {
+        Table table = Table.empty();
+        for (int row = 0; row < cells.length; row++) {
+            for (int column = 0; column < cells[row].length; column++) {
+                table.add(new TextChunk(new TextElement(row, column, 1f, 1f, PDType1Font.HELVETICA, 1f, cells[row][column], 1f)), row, column);
+            }
+        }
+        return table;
+    }
+
+    @Test
+    public void testParseNumbers() {
+        CellValueParser parser = new CellValueParser();
+
+        assertEquals(ColumnType.INTEGER, parser.parse(" -7 "));
+        assertEquals(-7, parser.longValue);
+        assertEquals(ColumnType.INTEGER, parser.parse("1,234,567"));
+        assertEquals(1234567, parser.longValue);
+        assertEquals(ColumnType.INTEGER, parser.parse("(12)"));
+        assertEquals(-12, parser.longValue);
+        assertEquals(ColumnType.INTEGER, parser.parse("0"));
+        assertEquals(0, parser.longValue);
+
+        assertEquals(ColumnType.DECIMAL, parser.parse("1,234.56"));
+        assertEquals(1234.56, parser.doubleValue, 0);
+        assertEquals(ColumnType.DECIMAL, parser.parse("(12.3)"));
+        assertEquals(-12.3, parser.doubleValue, 0);
+        assertEquals(ColumnType.DECIMAL, parser.parse("−.5"));
+        assertEquals(-0.5, parser.doubleValue, 0);
+        assertEquals(ColumnType.DECIMAL, parser.parse("12345678901234567890"));
+        assertEquals(12345678901234567890.0, parser.doubleValue, 0);
+
+        assertEquals(ColumnType.PERCENT, parser.parse("12%"));
+        assertEquals(12, parser.doubleValue, 0);
+        assertEquals(ColumnType.PERCENT, parser.parse("(1.5)%"));
+        assertEquals(-1.5, parser.doubleValue, 0);
+
+        for (String text : new String[] { "007", "1,23", "1234,567", "1,234,56", "1.2.3", "-", "%", "()", "(-1)", "1e5", "$5", "a1", "1 000" }) {
+            assertEquals(text, ColumnType.TEXT, parser.parse(text));
+        }
+        assertNull(parser.parse(""));
+        assertNull(parser.parse(" \t"));
+    }
+
+    @Test
+    public void testParseDecimalsLikeDouble() {
+        CellValueParser parser = new CellValueParser();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String text = String.format("%d.%0" + (1 + random.nextInt(8)) + "d", random.nextInt(1000000), random.nextInt(1000));
+            assertEquals(text, ColumnType.DECIMAL, parser.parse(text));
+            assertEquals(text, Double.parseDouble(text), parser.doubleValue, 0);
+        }
+    }
+
+    @Test
+    public void testParseDates() {
+        CellValueParser parser = new CellValueParser();
+        for (String text : new String[] { "1970-01-01", "2020-02-29", "1969-12-31", "1900-03-01", "2100-12-31", "0001-01-01" }) {
+            assertEquals(text, ColumnType.DATE, parser.parse(text));
+            assertEquals(text, LocalDate.parse(text).toEpochDay(), parser.epochDay);
+        }
+        for (String text : new String[] { "2019-02-29", "2020-13-01", "2020-04-31", "2020-1-01", "01/02/2020" }) {
+            assertEquals(text, ColumnType.TEXT, parser.parse(text));
+        }
+    }
+
+    @Test
+    public void testInferColumnTypes() {
+        Table table = tableOf(new String[][] {
+                { "1", "1", "5%", "2020-01-01", "a", "" },
+                { "", "2.5", "(1.5%)", "", "1", "" },
+                { "1,000", "3", "100%", "1999-12-31", "", "" } });
+
+        ColumnType[] columnTypes = TypedTable.inferColumnTypes(Arrays.asList(table));
+        assertArrayEquals(new ColumnType[] { ColumnType.INTEGER, ColumnType.DECIMAL, ColumnType.PERCENT, ColumnType.DATE,
+                ColumnType.TEXT, ColumnType.TEXT }, columnTypes);
+
+        TypedTable typedTable = TypedTable.of(table);
+        assertEquals(6, typedTable.getColCount());
+        assertArrayEquals(new long[] { 1, 0, 1000 }, typedTable.getLongs(0));
+        assertTrue(typedTable.isNull(1, 0));
+        assertFalse(typedTable.isNull(2, 0));
+        assertArrayEquals(new double[] { 1, 2.5, 3 }, typedTable.getDoubles(1), 0);
+        assertArrayEquals(new double[] { 5, -1.5, 100 }, typedTable.getDoubles(2), 0);
+        assertArrayEquals(new int[] { 18262, 0, 10956 }, typedTable.getEpochDays(3));
+        assertTrue(typedTable.isNull(1, 3));
+        assertArrayEquals(new String[] { "a", "1", "" }, typedTable.getTexts(4));
+        assertFalse(typedTable.isNull(2, 4));
+    }
+
+    @Test
+    public void testTypesAcrossTables() {
+        Table integers = tableOf(new String[][] { { "1", "x" }, { "2", "y" } });
+        Table decimals = tableOf(new String[][] { { "1.5" } });
+        ColumnType[] columnTypes = TypedTable.inferColumnTypes(Arrays.asList(integers, decimals));
+        assertArrayEquals(new ColumnType[] { ColumnType.DECIMAL, ColumnType.TEXT }, columnTypes);
+
+        // integers in a decimal column are decimals, and the columns a table doesn't have are null
+        TypedTable typedTable = TypedTable.of(decimals, columnTypes);
+        assertArrayEquals(new double[] { 1.5 }, typedTable.getDoubles(0), 0);
+        assertTrue(typedTable.isNull(0, 1));
+        assertArrayEquals(new double[] { 1, 2 }, TypedTable.of(integers, columnTypes).getDoubles(0), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongColumnType() {
+        TypedTable.of(tableOf(new String[][] { { "a" } })).getLongs(0);
+    }
+}
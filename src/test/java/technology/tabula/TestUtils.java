@@ -7,10 +7,13 @@ import static org.junit.Assert.assertNull;
 import java.awt.geom.Point2D;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.commons.cli.ParseException;
@@ -80,6 +83,22 @@ public class TestUtils {
         Utils.parsePagesOption("quuxor");
     }
 
+    @Test
+    public void testRoundMatchesBigDecimalHalfUp() {
+        assertEquals(0.13f, Utils.round(0.125, 2), 0);
+        assertEquals(-0.13f, Utils.round(-0.125, 2), 0);
+        assertEquals(1.01f, Utils.round(1.005, 2), 0);
+        assertEquals(0f, Utils.round(-0.001, 2), 0);
+        assertEquals(Float.floatToIntBits(0f), Float.floatToIntBits(Utils.round(-0.001, 2)));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            double d = (float) (random.nextGaussian() * 1000);
+            float expected = new BigDecimal(Double.toString(d)).setScale(2, RoundingMode.HALF_UP).floatValue();
+            assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(Utils.round(d, 2)));
+        }
+    }
+
     @Test
     public void testQuickSortEmptyList() {
     	List<Integer> numbers = new ArrayList<>();
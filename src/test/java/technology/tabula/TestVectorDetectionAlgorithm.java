@@ -0,0 +1,40 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+import technology.tabula.detectors.VectorDetectionAlgorithm;
+
+public class TestVectorDetectionAlgorithm {
+
+    @Test
+    public void testFindsTheSameTablesAsTheRasterAlgorithm() throws IOException {
+        try (PDDocument document = PDDocument.load(new File("src/test/resources/technology/tabula/twotables.pdf"))) {
+            Page page = new ObjectExtractor(document).extract(1);
+
+            List<Rectangle> rasterTables = new NurminenDetectionAlgorithm().detect(page);
+            List<Rectangle> vectorTables = new VectorDetectionAlgorithm().detect(page);
+
+            assertEquals(2, vectorTables.size());
+            for (int i = 0; i < vectorTables.size(); i++) {
+                assertEquals(rasterTables.get(i).getTop(), vectorTables.get(i).getTop(), 2);
+                assertEquals(rasterTables.get(i).getLeft(), vectorTables.get(i).getLeft(), 2);
+                assertEquals(rasterTables.get(i).getBottom(), vectorTables.get(i).getBottom(), 2);
+                assertEquals(rasterTables.get(i).getRight(), vectorTables.get(i).getRight(), 2);
+            }
+        }
+    }
+
+    @Test
+    public void testFindsNoTablesWithoutRulingsOrTextColumns() throws IOException {
+        Page page = UtilsForTesting.getAreaFromFirstPage("src/test/resources/technology/tabula/twotables.pdf", 0, 0, 10, 10);
+        assertTrue(new VectorDetectionAlgorithm().detect(page).isEmpty());
+    }
+}
@@ -1,20 +1,41 @@
 package technology.tabula;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.junit.Test;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 
 import technology.tabula.extractors.BasicExtractionAlgorithm;
 import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+import technology.tabula.writers.ArrowWriter;
 import technology.tabula.writers.CSVWriter;
 import technology.tabula.writers.JSONWriter;
+import technology.tabula.writers.NDJSONWriter;
+import technology.tabula.writers.ParallelWriter;
 import technology.tabula.writers.TSVWriter;
+import technology.tabula.writers.Writer;
 
 public class TestWriters {
 
@@ -109,6 +130,165 @@ public class TestWriters {
         assertEquals(2, json.size());
     }
 
+    @Test
+    public void testJSONWriterCompact() throws IOException {
+        List<Table> tables = this.getTables();
+        StringBuilder full = new StringBuilder();
+        (new JSONWriter()).write(full, tables);
+        StringBuilder compact = new StringBuilder();
+        (new JSONWriter(true)).write(compact, tables);
+
+        Gson gson = new Gson();
+        JsonArray fullJson = gson.fromJson(full.toString(), JsonArray.class);
+        JsonArray compactJson = gson.fromJson(compact.toString(), JsonArray.class);
+        assertEquals(fullJson.size(), compactJson.size());
+        for (int i = 0; i < fullJson.size(); i++) {
+            JsonObject fullTable = fullJson.get(i).getAsJsonObject();
+            JsonObject compactTable = compactJson.get(i).getAsJsonObject();
+            JsonArray fullRows = fullTable.remove("data").getAsJsonArray();
+            JsonArray compactRows = compactTable.remove("data").getAsJsonArray();
+            assertEquals(fullTable, compactTable);
+
+            assertEquals(fullRows.size(), compactRows.size());
+            for (int j = 0; j < fullRows.size(); j++) {
+                JsonArray fullRow = fullRows.get(j).getAsJsonArray();
+                JsonArray compactRow = compactRows.get(j).getAsJsonArray();
+                assertEquals(fullRow.size(), compactRow.size());
+                for (int k = 0; k < fullRow.size(); k++) {
+                    JsonObject compactCell = compactRow.get(k).getAsJsonObject();
+                    assertEquals(1, compactCell.size());
+                    assertEquals(fullRow.get(k).getAsJsonObject().get("text"), compactCell.get("text"));
+                }
+            }
+        }
+        assertTrue(compact.length() < full.length() / 2);
+    }
+
+    @Test
+    public void testNDJSONWriter() throws IOException {
+        List<Table> tables = this.getTables();
+        StringBuilder sb = new StringBuilder();
+        (new JSONWriter()).write(sb, tables);
+        JsonArray expected = new Gson().fromJson(sb.toString(), JsonArray.class);
+
+        sb = new StringBuilder();
+        (new NDJSONWriter()).write(sb, tables);
+        String[] lines = sb.toString().split("\n", -1);
+        assertEquals(tables.size() + 1, lines.length);
+        assertEquals("", lines[tables.size()]);
+        for (int i = 0; i < tables.size(); i++) {
+            JsonObject table = new Gson().fromJson(lines[i], JsonObject.class);
+            assertEquals(i, table.remove("table_index").getAsInt());
+            assertEquals(expected.get(i), table);
+        }
+    }
+
+    @Test
+    public void testNDJSONWriterRows() throws IOException {
+        List<Table> tables = this.getTables();
+        StringBuilder sb = new StringBuilder();
+        (new NDJSONWriter(true, true)).write(sb, tables);
+        String[] lines = sb.toString().split("\n");
+
+        int line = 0;
+        for (int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
+            for (int j = 0; j < table.getRowCount(); j++) {
+                JsonObject row = new Gson().fromJson(lines[line++], JsonObject.class);
+                assertEquals(1, row.get("page_number").getAsInt());
+                assertEquals(i, row.get("table_index").getAsInt());
+                assertEquals("lattice", row.get("extraction_method").getAsString());
+                assertEquals(j, row.get("row_index").getAsInt());
+                JsonArray cells = row.get("data").getAsJsonArray();
+                assertEquals(table.getColCount(), cells.size());
+                assertEquals(table.getCell(j, 0).getText(), cells.get(0).getAsJsonObject().get("text").getAsString());
+            }
+        }
+        assertEquals(line, lines.length);
+    }
+
+    @Test
+    public void testArrowWriter() throws IOException {
+        List<Table> tables = this.getTables();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        (new ArrowWriter()).write(bytes, tables);
+        ArrowStream stream = new ArrowStream(bytes.toByteArray());
+
+        int columnCount = Math.max(tables.get(0).getColCount(), tables.get(1).getColCount());
+        assertEquals(columnCount, stream.columnNames.size());
+        assertEquals("column_1", stream.columnNames.get(0));
+        assertEquals(tables.size(), stream.batches.size());
+        for (int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
+            ArrowStream.Batch batch = stream.batches.get(i);
+            assertEquals("1", batch.metadata.get("page_number"));
+            assertEquals(Integer.toString(i), batch.metadata.get("table_id"));
+            assertEquals("lattice", batch.metadata.get("extraction_method"));
+            for (int column = 0; column < columnCount; column++) {
+                assertEquals(5, (int) stream.columnTypes.get(column));
+                for (int row = 0; row < table.getRowCount(); row++) {
+                    Object expected = column < table.getColCount() ? table.getCell(row, column).getText() : null;
+                    assertEquals(expected, batch.columns.get(column)[row]);
+                }
+            }
+        }
+
+        // written to an Appendable, it's the same bytes as characters
+        StringBuilder sb = new StringBuilder();
+        (new ArrowWriter()).write(sb, tables);
+        assertEquals(new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1), sb.toString());
+    }
+
+    @Test
+    public void testArrowWriterTyped() throws IOException {
+        Table table = getTypedTable();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        (new ArrowWriter(true)).write(bytes, Collections.singletonList(table));
+        ArrowStream stream = new ArrowStream(bytes.toByteArray());
+
+        assertEquals(Arrays.asList(2, 3, 5, 3, 8), stream.columnTypes);
+        List<Object[]> columns = stream.batches.get(0).columns;
+        assertArrayEquals(new Object[] { 1L, -20L, 1300L }, columns.get(0));
+        assertArrayEquals(new Object[] { 1.5, null, -0.25 }, columns.get(1));
+        assertArrayEquals(new Object[] { "a", "1", "" }, columns.get(2));
+        assertArrayEquals(new Object[] { 5.0, -1.5, 100.0 }, columns.get(3));
+        assertArrayEquals(new Object[] { 18262, null, 10956 }, columns.get(4));
+    }
+
+    @Test
+    public void testJSONWriterTyped() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        (new JSONWriter(true, true)).write(sb, getTypedTable());
+        JsonObject table = new Gson().fromJson(sb.toString(), JsonObject.class);
+
+        assertEquals(new Gson().toJsonTree(Arrays.asList("integer", "decimal", "text", "percent", "date")), table.get("column_types"));
+        JsonArray rows = table.get("data").getAsJsonArray();
+        assertEquals("{\"text\":\"1,300\",\"value\":1300}", rows.get(2).getAsJsonArray().get(0).toString());
+        assertEquals("{\"text\":\"\"}", rows.get(1).getAsJsonArray().get(1).toString());
+        assertEquals("{\"text\":\"-.25\",\"value\":-0.25}", rows.get(2).getAsJsonArray().get(1).toString());
+        assertEquals("{\"text\":\"a\"}", rows.get(0).getAsJsonArray().get(2).toString());
+        assertEquals("{\"text\":\"(1.5%)\",\"value\":-1.5}", rows.get(1).getAsJsonArray().get(3).toString());
+        assertEquals("{\"text\":\"2020-01-01\"}", rows.get(0).getAsJsonArray().get(4).toString());
+    }
+
+    private static Table getTypedTable() {
+        return getTable(new String[][] {
+                { "1", "1.5", "a", "5%", "2020-01-01" },
+                { "-20", "", "1", "(1.5%)", "" },
+                { "1,300", "-.25", "", "100%", "1999-12-31" } });
+    }
+
+    private static Table getTable(String[][] cells) {
+        Table table = Table.empty();
+        for (int row = 0; row < cells.length; row++) {
+            for (int column = 0; column < cells[row].length; column++) {
+                table.add(new TextChunk(new TextElement(row, column, 1f, 1f, PDType1Font.HELVETICA, 1f, cells[row][column], 1f)), row, column);
+            }
+        }
+        return table;
+    }
+
     @Test
     public void testCSVSerializeTwoTables() throws IOException {
         String expectedCsv = UtilsForTesting.loadCsv("src/test/resources/technology/tabula/csv/twotables.csv");
@@ -133,4 +313,205 @@ public class TestWriters {
         assertEquals(expectedCsv, s);
     }
 
+    @Test
+    public void testCSVWriterWritesAsCSVPrinter() throws IOException {
+        StringBuilder longValue = new StringBuilder();
+        while (longValue.length() < 64 * 1024 - 1)
+            longValue.append('x');
+        // a surrogate pair across the end of the writer's buffer, when it's the first value written
+        longValue.append("\uD83D\uDE00");
+        String[][] cells = {
+                { "", "", "" },
+                { "plain", "a,b", "a\tb", "say \"hi\"" },
+                { "#comment", " leading", "trailing ", "!bang", "$dollar" },
+                { "line\nbreak", "carriage\rreturn", "\"", "\"\"" },
+                { "Cívico", "\uD83D\uDE00", "\u00A0", "ünï", "" } };
+        List<Table> tables = Arrays.asList(getTable(cells), getTable(cells));
+
+        assertWritesAsCSVPrinter(new CSVWriter(), CSVFormat.EXCEL, tables);
+        assertWritesAsCSVPrinter(new TSVWriter(), CSVFormat.TDF, tables);
+        assertWritesAsCSVPrinter(new CSVWriter(), CSVFormat.EXCEL,
+                Collections.singletonList(getTable(new String[][] { { longValue.toString(), "after" } })));
+        assertWritesAsCSVPrinter(new CSVWriter(), CSVFormat.EXCEL, this.getTables());
+        assertWritesAsCSVPrinter(new TSVWriter(), CSVFormat.TDF, Collections.singletonList(this.getTable()));
+    }
+
+    private static void assertWritesAsCSVPrinter(Writer writer, CSVFormat format, List<Table> tables) throws IOException {
+        StringBuilder expected = new StringBuilder();
+        try (CSVPrinter printer = new CSVPrinter(expected, format)) {
+            for (Table table : tables) {
+                for (List<RectangularTextContainer> row : table.getRows()) {
+                    List<String> cells = new ArrayList<>();
+                    for (RectangularTextContainer<?> cell : row)
+                        cells.add(cell.getText());
+                    printer.printRecord(cells);
+                }
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        writer.write(sb, tables);
+        assertEquals(expected.toString(), sb.toString());
+
+        StringWriter stringWriter = new StringWriter();
+        writer.write(stringWriter, tables);
+        assertEquals(expected.toString(), stringWriter.toString());
+
+        for (Charset charset : Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.write(out, charset, tables);
+            assertArrayEquals(expected.toString().getBytes(charset), out.toByteArray());
+        }
+    }
+
+    @Test
+    public void testParallelWriterWritesAsSerial() throws IOException {
+        List<Table> tables = new ArrayList<>(this.getTables());
+        tables.add(this.getTable());
+        tables.add(getTypedTable());
+        List<Writer> writers = Arrays.asList(new CSVWriter(), new TSVWriter(), new JSONWriter(), new JSONWriter(true, true),
+                new NDJSONWriter(), new NDJSONWriter(true, true, true), new ArrowWriter(), new ArrowWriter(true));
+
+        for (Writer writer : writers) {
+            for (List<Table> someTables : Arrays.asList(tables, tables.subList(0, 1), Collections.<Table>emptyList())) {
+                StringBuilder expected = new StringBuilder();
+                writer.write(expected, someTables);
+                StringBuilder sb = new StringBuilder();
+                new ParallelWriter(writer).write(sb, someTables);
+                assertEquals(expected.toString(), sb.toString());
+
+                for (Charset charset : Arrays.asList(StandardCharsets.UTF_8, StandardCharsets.UTF_16)) {
+                    ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+                    writer.write(expectedBytes, charset, someTables);
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    new ParallelWriter(writer).write(out, charset, someTables);
+                    assertArrayEquals(expectedBytes.toByteArray(), out.toByteArray());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads back the parts of an Arrow IPC stream that ArrowWriter writes
+     */
+    private static class ArrowStream {
+        final List<String> columnNames = new ArrayList<>();
+        final List<Integer> columnTypes = new ArrayList<>();
+        final List<Batch> batches = new ArrayList<>();
+
+        static class Batch {
+            final Map<String, String> metadata = new HashMap<>();
+            final List<Object[]> columns = new ArrayList<>();
+        }
+
+        ArrowStream(byte[] bytes) {
+            ByteBuffer stream = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            while (true) {
+                assertEquals(0xFFFFFFFF, stream.getInt());
+                int metadataSize = stream.getInt();
+                if (metadataSize == 0) {
+                    break;
+                }
+                assertEquals(0, stream.position() % 8);
+                ByteBuffer metadata = slice(stream, metadataSize);
+                int message = metadata.getInt(0);
+                assertEquals(4, metadata.getShort(field(metadata, message, 0)));
+                int header = ref(metadata, field(metadata, message, 2));
+                ByteBuffer body = slice(stream, (int) getLong(metadata, field(metadata, message, 3)));
+
+                if (metadata.get(field(metadata, message, 1)) == 1) {
+                    int fields = ref(metadata, field(metadata, header, 1));
+                    for (int i = 0; i < metadata.getInt(fields); i++) {
+                        int f = ref(metadata, fields + 4 + 4 * i);
+                        columnNames.add(string(metadata, field(metadata, f, 0)));
+                        columnTypes.add((int) metadata.get(field(metadata, f, 2)));
+                    }
+                    continue;
+                }
+
+                Batch batch = new Batch();
+                batches.add(batch);
+                int keyValues = ref(metadata, field(metadata, message, 4));
+                for (int i = 0; i < metadata.getInt(keyValues); i++) {
+                    int keyValue = ref(metadata, keyValues + 4 + 4 * i);
+                    batch.metadata.put(string(metadata, field(metadata, keyValue, 0)), string(metadata, field(metadata, keyValue, 1)));
+                }
+
+                int length = (int) getLong(metadata, field(metadata, header, 0));
+                int nodes = ref(metadata, field(metadata, header, 1));
+                int buffers = ref(metadata, field(metadata, header, 2)) + 4;
+                for (int column = 0; column < columnTypes.size(); column++) {
+                    assertEquals(length, getLong(metadata, nodes + 4 + 16 * column));
+                    ByteBuffer validity = buffer(metadata, body, buffers);
+                    ByteBuffer values = buffer(metadata, body, buffers + 16);
+                    buffers += 32;
+                    ByteBuffer data = null;
+                    if (columnTypes.get(column) == 5) {
+                        data = buffer(metadata, body, buffers);
+                        buffers += 16;
+                    }
+
+                    Object[] cells = new Object[length];
+                    for (int row = 0; row < length; row++) {
+                        if (validity.limit() > 0 && (validity.get(row / 8) & (1 << (row % 8))) == 0) {
+                            continue;
+                        }
+                        if (columnTypes.get(column) == 2) {
+                            cells[row] = values.getLong(8 * row);
+                        } else if (columnTypes.get(column) == 3) {
+                            cells[row] = values.getDouble(8 * row);
+                        } else if (columnTypes.get(column) == 8) {
+                            cells[row] = values.getInt(4 * row);
+                        } else {
+                            byte[] utf8 = new byte[values.getInt(4 * row + 4) - values.getInt(4 * row)];
+                            ((ByteBuffer) data.position(values.getInt(4 * row))).get(utf8);
+                            cells[row] = new String(utf8, StandardCharsets.UTF_8);
+                        }
+                    }
+                    batch.columns.add(cells);
+                }
+            }
+            assertEquals(bytes.length, stream.position());
+        }
+
+        private static ByteBuffer slice(ByteBuffer stream, int size) {
+            ByteBuffer slice = stream.slice().order(ByteOrder.LITTLE_ENDIAN);
+            slice.limit(size);
+            stream.position(stream.position() + size);
+            return slice;
+        }
+
+        private static ByteBuffer buffer(ByteBuffer metadata, ByteBuffer body, int buffer) {
+            ByteBuffer slice = ((ByteBuffer) body.duplicate().position((int) getLong(metadata, buffer))).slice().order(ByteOrder.LITTLE_ENDIAN);
+            slice.limit((int) getLong(metadata, buffer + 8));
+            return slice;
+        }
+
+        private static long getLong(ByteBuffer metadata, int at) {
+            assertEquals(0, at % 8);
+            return metadata.getLong(at);
+        }
+
+        // where the field of the table is, or -1 if it's absent
+        private static int field(ByteBuffer metadata, int table, int id) {
+            int vtable = table - metadata.getInt(table);
+            if (4 + 2 * id >= metadata.getShort(vtable)) {
+                return -1;
+            }
+            int offset = metadata.getShort(vtable + 4 + 2 * id);
+            return offset == 0 ? -1 : table + offset;
+        }
+
+        private static int ref(ByteBuffer metadata, int at) {
+            return at + metadata.getInt(at);
+        }
+
+        private static String string(ByteBuffer metadata, int at) {
+            int string = ref(metadata, at);
+            byte[] utf8 = new byte[metadata.getInt(string)];
+            ((ByteBuffer) metadata.duplicate().position(string + 4)).get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+
 }
@@ -0,0 +1,212 @@
+package technology.tabula.detectors;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSInputStream;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.filter.DecodeOptions;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
+import org.junit.Test;
+
+public class TestDetectionRenderer {
+
+    private static final PDRectangle PAGE_SIZE = new PDRectangle(400, 200);
+
+    // a transparency group with a white background and big black text on it
+    private static PDFormXObject textGroup(PDDocument document) throws IOException {
+        PDFormXObject form = new PDFormXObject(document);
+        form.setBBox(PAGE_SIZE);
+        form.setResources(new PDResources());
+        COSDictionary group = new COSDictionary();
+        group.setItem(COSName.S, COSName.TRANSPARENCY);
+        form.getCOSObject().setItem(COSName.GROUP, group);
+        try (PDPageContentStream contents = new PDPageContentStream(document, form, form.getStream().createOutputStream())) {
+            contents.setNonStrokingColor(1f);
+            contents.addRect(0, 0, PAGE_SIZE.getWidth(), PAGE_SIZE.getHeight());
+            contents.fill();
+            contents.setNonStrokingColor(0f);
+            contents.beginText();
+            contents.setFont(PDType1Font.HELVETICA_BOLD, 72);
+            contents.newLineAtOffset(50, 70);
+            contents.showText("XXXX");
+            contents.endText();
+        }
+        return form;
+    }
+
+    // saved and loaded again, so that the form is read back as a transparency group
+    private static PDDocument reload(PDDocument document) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        document.save(bytes);
+        return PDDocument.load(bytes.toByteArray());
+    }
+
+    private static int darkPixels(BufferedImage image) {
+        int count = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) & 0xff) < 128) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testTextInTransparencyGroupIsLeftOutOfTextFreeImage() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PAGE_SIZE);
+            document.addPage(page);
+            PDFormXObject form = textGroup(document);
+            try (PDPageContentStream contents = new PDPageContentStream(document, page)) {
+                contents.drawForm(form);
+            }
+
+            try (PDDocument reloaded = reload(document)) {
+                DetectionRenderer.PageImages images = new DetectionRenderer(reloaded)
+                        .renderImages(0, 72);
+
+                assertTrue(darkPixels(images.withText) > 1000);
+                assertEquals(0, darkPixels(images.withoutText));
+            }
+        }
+    }
+
+    @Test
+    public void testTextInSoftMaskIsLeftOutOfTextFreeImage() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PAGE_SIZE);
+            document.addPage(page);
+
+            // a black rectangle seen through the text, which only the page with its text has holes in
+            COSDictionary softMask = new COSDictionary();
+            softMask.setItem(COSName.TYPE, COSName.MASK);
+            softMask.setItem(COSName.S, COSName.LUMINOSITY);
+            softMask.setItem(COSName.G, textGroup(document));
+            PDExtendedGraphicsState graphicsState = new PDExtendedGraphicsState();
+            graphicsState.getCOSObject().setItem(COSName.SMASK, softMask);
+            try (PDPageContentStream contents = new PDPageContentStream(document, page)) {
+                contents.setGraphicsStateParameters(graphicsState);
+                contents.setNonStrokingColor(0f);
+                contents.addRect(20, 20, 360, 160);
+                contents.fill();
+            }
+
+            try (PDDocument reloaded = reload(document)) {
+                DetectionRenderer.PageImages images = new DetectionRenderer(reloaded)
+                        .renderImages(0, 72);
+
+                int rectangle = 360 * 160;
+                assertTrue(darkPixels(images.withText) < rectangle - 1000);
+                assertEquals(rectangle, darkPixels(images.withoutText));
+            }
+        }
+    }
+
+    // a page with a black image across its top quarter, 10 pixels wide, and one across its bottom quarter, 20 wide
+    private static PDDocument twoImages() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(new PDRectangle(400, 400));
+            document.addPage(page);
+            try (PDPageContentStream contents = new PDPageContentStream(document, page)) {
+                contents.drawImage(LosslessFactory.createFromImage(document, blackImage(10)), 0, 300, 400, 100);
+                contents.drawImage(LosslessFactory.createFromImage(document, blackImage(20)), 0, 0, 400, 100);
+            }
+            return reload(document);
+        }
+    }
+
+    private static BufferedImage blackImage(int width) {
+        return new BufferedImage(width, 10, BufferedImage.TYPE_BYTE_GRAY);
+    }
+
+    /**
+     * Has the images of the document record their width when they're decoded
+     */
+    private static void recordDecodedImages(PDDocument document, Set<Integer> decodedImageWidths) {
+        document.setResourceCache(new DefaultResourceCache() {
+            @Override
+            public PDXObject getXObject(COSObject indirect) throws IOException {
+                if (!(indirect.getObject() instanceof COSStream)) {
+                    return super.getXObject(indirect);
+                }
+                COSStream stream = (COSStream) indirect.getObject();
+                if (!COSName.IMAGE.equals(stream.getCOSName(COSName.SUBTYPE))) {
+                    return super.getXObject(indirect);
+                }
+
+                COSStream recordingStream = new COSStream() {
+                    @Override
+                    public COSInputStream createInputStream(DecodeOptions options) throws IOException {
+                        decodedImageWidths.add(getInt(COSName.WIDTH));
+                        return super.createInputStream(options);
+                    }
+                };
+                recordingStream.addAll(stream);
+                try (InputStream in = stream.createRawInputStream();
+                     OutputStream out = recordingStream.createRawOutputStream()) {
+                    IOUtils.copy(in, out);
+                }
+                return new PDImageXObject(new PDStream(recordingStream), null);
+            }
+        });
+    }
+
+    @Test
+    public void testImagesOutsideOfStripAreNotDecoded() throws IOException {
+        try (PDDocument document = twoImages()) {
+            Set<Integer> decodedImageWidths = new HashSet<>();
+            recordDecodedImages(document, decodedImageWidths);
+
+            // the bottom quarter of the page
+            BufferedImage withText = new BufferedImage(400, 100, BufferedImage.TYPE_BYTE_GRAY);
+            BufferedImage withoutText = new BufferedImage(400, 100, BufferedImage.TYPE_BYTE_GRAY);
+            new DetectionRenderer(document).renderStrip(0, 72, null, 300, withText, withoutText);
+
+            assertEquals(Collections.singleton(20), decodedImageWidths);
+            assertEquals(400 * 100, darkPixels(withText));
+            assertEquals(400 * 100, darkPixels(withoutText));
+        }
+    }
+
+    @Test
+    public void testImagesOutsideOfClipAreNotDecoded() throws IOException {
+        try (PDDocument document = twoImages()) {
+            Set<Integer> decodedImageWidths = new HashSet<>();
+            recordDecodedImages(document, decodedImageWidths);
+
+            DetectionRenderer.PageImages images = new DetectionRenderer(document)
+                    .renderImages(0, 72, new java.awt.Rectangle(0, 0, 400, 150));
+
+            assertEquals(Collections.singleton(10), decodedImageWidths);
+            assertEquals(400 * 100, darkPixels(images.withText));
+        }
+    }
+
+}
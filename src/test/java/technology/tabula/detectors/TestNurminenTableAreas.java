@@ -0,0 +1,117 @@
+package technology.tabula.detectors;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import technology.tabula.Rectangle;
+
+public class TestNurminenTableAreas {
+
+    private final NurminenDetectionAlgorithm algorithm = new NurminenDetectionAlgorithm();
+
+    // a grid of cells of the given size, from top to bottom and left to right
+    private static List<Rectangle> grid(float top, float left, float width, float height, int rows, int columns) {
+        List<Rectangle> cells = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                cells.add(new Rectangle(top + row * height, left + column * width, width, height));
+            }
+        }
+        return cells;
+    }
+
+    @Test
+    public void testGroupsBridgedByASharedCornerMakeOneTable() {
+        List<Rectangle> first = grid(0, 0, 50, 20, 2, 2);
+        List<Rectangle> second = grid(100, 200, 50, 20, 2, 2);
+        // its top left corner is the bottom right one of the first grid, its bottom right the top left of the second
+        Rectangle bridge = new Rectangle(40, 100, 100, 60);
+
+        List<Rectangle> apart = new ArrayList<>(first);
+        apart.addAll(second);
+        assertEquals(Arrays.asList(new Rectangle(0, 0, 100, 40), new Rectangle(100, 200, 100, 40)),
+                algorithm.getTableAreasFromCells(apart));
+
+        // the bridge comes after both groups are made, before them, or between them
+        List<Rectangle> table = Collections.singletonList(new Rectangle(0, 0, 300, 140));
+        List<Rectangle> bridgedLast = new ArrayList<>(apart);
+        bridgedLast.add(bridge);
+        assertEquals(table, algorithm.getTableAreasFromCells(bridgedLast));
+
+        List<Rectangle> bridgedFirst = new ArrayList<>(apart);
+        bridgedFirst.add(0, bridge);
+        assertEquals(table, algorithm.getTableAreasFromCells(bridgedFirst));
+
+        List<Rectangle> bridgedBetween = new ArrayList<>(first);
+        bridgedBetween.add(bridge);
+        bridgedBetween.addAll(second);
+        assertEquals(table, algorithm.getTableAreasFromCells(bridgedBetween));
+    }
+
+    @Test
+    public void testCornersCloseAcrossABucketBoundaryAreShared() {
+        // the grids are 4 points apart, on either side of x = 100
+        List<Rectangle> cells = grid(0, 0, 49, 20, 2, 2);
+        cells.addAll(grid(0, 102, 50, 20, 2, 2));
+        // 3 cells, too few to make a table on their own
+        cells.addAll(grid(300, 0, 50, 20, 1, 3));
+
+        assertEquals(Collections.singletonList(new Rectangle(0, 0, 202, 40)),
+                algorithm.getTableAreasFromCells(cells));
+    }
+
+    @Test
+    public void testDuplicateTablesAcrossBucketBoundariesAreRemoved() {
+        // across the buckets from 0 to 200 both ways
+        Rectangle table = new Rectangle(50, 50, 100, 100);
+        // from 95 to 295 across, and the same moved 10 points to the right, into the next bucket
+        Rectangle wideTable = new Rectangle(300, 95, 200, 50);
+        Rectangle movedWideTable = new Rectangle(300, 105, 200, 50);
+        Rectangle smallTable = new Rectangle(200, 200, 50, 50);
+        // shares the buckets of the first table without overlapping it
+        Rectangle besideTable = new Rectangle(50, 160, 30, 30);
+
+        List<Rectangle> tables = Arrays.asList(
+                table,
+                new Rectangle(50, 50, 100, 100),
+                // within a single one of the first table's buckets
+                new Rectangle(110, 110, 30, 30),
+                new Rectangle(52, 52, 100, 100),
+                wideTable,
+                movedWideTable,
+                smallTable,
+                // contains the small table, from the bucket before it
+                new Rectangle(190, 190, 80, 80),
+                besideTable);
+
+        assertTrue(wideTable.overlapRatio(movedWideTable) >= 0.9f);
+        assertEquals(Arrays.asList(table, wideTable, smallTable, besideTable),
+                algorithm.removeDuplicateTables(tables));
+    }
+
+    @Test
+    public void testOverlappingCandidateRegionsAreMergedAcrossBuckets() {
+        List<java.awt.Rectangle> regions = Arrays.asList(
+                new java.awt.Rectangle(0, 0, 300, 10),
+                // apart from the region above, reached through the next two
+                new java.awt.Rectangle(1000, 1000, 10, 10),
+                new java.awt.Rectangle(250, 5, 10, 1000),
+                new java.awt.Rectangle(255, 995, 800, 10),
+                new java.awt.Rectangle(2000, 0, 10, 10),
+                // only touches the region above, without overlapping it
+                new java.awt.Rectangle(2010, 0, 10, 10));
+
+        assertEquals(Arrays.asList(
+                new java.awt.Rectangle(0, 0, 1055, 1010),
+                new java.awt.Rectangle(2000, 0, 10, 10),
+                new java.awt.Rectangle(2010, 0, 10, 10)),
+                NurminenDetectionAlgorithm.mergeOverlappingRegions(regions));
+    }
+
+}
@@ -0,0 +1,103 @@
+package technology.tabula.detectors;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import technology.tabula.Ruling;
+
+public class TestRasterEdgeDetector {
+
+    private static final String[] PDFS = {
+            "src/test/resources/technology/tabula/twotables.pdf",
+            "src/test/resources/technology/tabula/spanning_cells.pdf",
+            "src/test/resources/technology/tabula/spreadsheet_no_bounding_frame.pdf",
+            "src/test/resources/technology/tabula/argentina_diputados_voting_record.pdf",
+            "src/test/resources/technology/tabula/12s0324.pdf",
+    };
+
+    private static final int[] STRIPE_COUNTS = {2, 3, 4, 7, 16};
+
+    private static RasterEdgeDetector detector(BufferedImage image) {
+        return new RasterEdgeDetector(image.getWidth(), image.getHeight(), 25, 50, 10);
+    }
+
+    /**
+     * Scans the image in strips of the given height, each split into the given number of stripes
+     */
+    private static RasterEdgeDetector scan(BufferedImage withText, BufferedImage withoutText, int stripHeight,
+                                           int stripeCount) {
+        RasterEdgeDetector detector = detector(withText);
+        int height = withText.getHeight();
+        for (int fromY = 0; fromY < height; fromY += stripHeight) {
+            detector.scanEdges(withText, withoutText, 0, fromY, Math.min(fromY + stripHeight, height), stripeCount);
+        }
+        return detector;
+    }
+
+    private static void assertSameEdges(String message, RasterEdgeDetector expected, RasterEdgeDetector actual) {
+        List<Ruling> expectedHorizontals = expected.getHorizontalRulings();
+        List<Ruling> expectedVerticals = expected.getVerticalRulings();
+        assertEquals(message, expectedHorizontals, actual.getHorizontalRulings());
+        assertEquals(message, expectedVerticals, actual.getVerticalRulings());
+    }
+
+    @Test
+    public void testStripesFindTheSameEdgesAsASinglePass() throws IOException {
+        for (String pdf : PDFS) {
+            try (PDDocument document = PDDocument.load(new File(pdf))) {
+                DetectionRenderer.PageImages images = new DetectionRenderer(document).renderImages(0, 144);
+                int height = images.withText.getHeight();
+                RasterEdgeDetector serial = scan(images.withText, images.withoutText, height, 1);
+                assertFalse(pdf, serial.getHorizontalRulings().isEmpty());
+                assertFalse(pdf, serial.getVerticalRulings().isEmpty());
+
+                for (int stripeCount : STRIPE_COUNTS) {
+                    assertSameEdges(pdf + " in " + stripeCount + " stripes", serial,
+                            scan(images.withText, images.withoutText, height, stripeCount));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStripeBoundariesWithinLines() {
+        // 4 stripes of each kind split the image at rows 100, 200 and 300 and columns 100, 200 and 300
+        BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 400, 400);
+        graphics.setColor(Color.BLACK);
+        for (int boundary = 100; boundary < 400; boundary += 100) {
+            // thick lines across each boundary, and thin ones starting and ending right on it
+            graphics.fillRect(20, boundary - 3, 360, 6);
+            graphics.fillRect(boundary - 3, 20, 6, 360);
+            graphics.fillRect(boundary - 60, boundary + 40, 60, 1);
+            graphics.fillRect(boundary, boundary + 50, 60, 1);
+            graphics.fillRect(boundary + 40, boundary - 30, 1, 30);
+            graphics.fillRect(boundary + 50, boundary, 1, 30);
+        }
+        graphics.dispose();
+
+        RasterEdgeDetector serial = scan(image, image, 400, 1);
+        // both edges of each thick line, and the thin lines the other stripes cross
+        assertTrue(serial.getHorizontalRulings().size() >= 6);
+        assertTrue(serial.getVerticalRulings().size() >= 6);
+
+        assertSameEdges("in stripes", serial, scan(image, image, 400, 4));
+        assertSameEdges("in odd stripes", serial, scan(image, image, 400, 3));
+        // strips of 100 rows, and of 97 rows, which start within the thick lines
+        assertSameEdges("in strips", serial, scan(image, image, 100, 1));
+        assertSameEdges("in strips and stripes", serial, scan(image, image, 100, 4));
+        assertSameEdges("in uneven strips and stripes", serial, scan(image, image, 97, 3));
+    }
+
+}
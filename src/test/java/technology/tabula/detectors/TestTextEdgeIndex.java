@@ -0,0 +1,177 @@
+package technology.tabula.detectors;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import technology.tabula.Line;
+import technology.tabula.ObjectExtractor;
+import technology.tabula.Page;
+import technology.tabula.PageIterator;
+import technology.tabula.Rectangle;
+import technology.tabula.TextChunk;
+import technology.tabula.detectors.NurminenDetectionAlgorithm.TextEdge;
+import technology.tabula.detectors.NurminenDetectionAlgorithm.TextEdgeIndex;
+
+public class TestTextEdgeIndex {
+
+    private static final String[] PDFS = {
+            "src/test/resources/technology/tabula/us-017.pdf",
+            "src/test/resources/technology/tabula/eu-002.pdf",
+            "src/test/resources/technology/tabula/twotables.pdf",
+            "src/test/resources/technology/tabula/campaign_donors.pdf",
+    };
+
+    private static final int REQUIRED_TEXT_LINES_FOR_EDGE = 4;
+
+    /**
+     * The edges of the given type, worked out from scratch the way the detection algorithm did before it kept an
+     * index: chunks are swept line by line, each one extending the edge at its position and ending the ones it
+     * crosses
+     */
+    private static List<String> recomputeEdges(List<Line> lines, int edgeType) {
+        List<String> edges = new ArrayList<>();
+        Map<Integer, List<TextChunk>> currentEdges = new HashMap<>();
+
+        for (Line line : lines) {
+            for (TextChunk text : line.getTextElements()) {
+                int left = (int) Math.floor(text.getLeft());
+                int right = (int) Math.floor(text.getRight());
+                int mid = left + ((right - left) / 2);
+                int position = edgeType == TextEdge.LEFT ? left : edgeType == TextEdge.MID ? mid : right;
+
+                currentEdges.computeIfAbsent(position, k -> new ArrayList<>()).add(text);
+
+                for (Iterator<Map.Entry<Integer, List<TextChunk>>> iterator = currentEdges.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<Integer, List<TextChunk>> edge = iterator.next();
+                    int key = edge.getKey();
+                    boolean farFromMid = edgeType != TextEdge.MID || Math.abs(key - mid) > 2;
+                    if (key > left && key < right && farFromMid) {
+                        iterator.remove();
+                        addEdge(edges, key, edge.getValue(), lines.size());
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, List<TextChunk>> edge : currentEdges.entrySet()) {
+            addEdge(edges, edge.getKey(), edge.getValue(), lines.size());
+        }
+
+        Collections.sort(edges);
+        return edges;
+    }
+
+    private static void addEdge(List<String> edges, int key, List<TextChunk> chunks, int lineCount) {
+        if (chunks.size() >= REQUIRED_TEXT_LINES_FOR_EDGE) {
+            edges.add(describe(key, chunks.get(0).getTop(), chunks.get(chunks.size() - 1).getBottom(),
+                    Math.min(chunks.size(), lineCount)));
+        }
+    }
+
+    private static String describe(float x, float top, float bottom, int lineCount) {
+        return String.format("x=%s top=%s bottom=%s lines=%d", x, top, bottom, lineCount);
+    }
+
+    private static List<String> indexedEdges(TextEdgeIndex index, int edgeType) {
+        List<String> edges = new ArrayList<>();
+        for (TextEdge edge : index.getTextEdges().get(edgeType)) {
+            assertEquals(edge.x1, edge.x2, 0);
+            edges.add(describe(edge.x1, edge.y1, edge.y2, edge.intersectingTextRowCount));
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    private static void assertSameAsRecomputed(String message, TextEdgeIndex index) {
+        for (int edgeType = 0; edgeType < TextEdge.NUM_TYPES; edgeType++) {
+            assertEquals(message + ", edge type " + edgeType,
+                    recomputeEdges(index.getLines(), edgeType), indexedEdges(index, edgeType));
+        }
+    }
+
+    private static Line line(float top, float... leftsAndRights) {
+        Line line = new Line();
+        for (int i = 0; i < leftsAndRights.length; i += 2) {
+            line.addTextChunk(new TextChunk(top, leftsAndRights[i], leftsAndRights[i + 1] - leftsAndRights[i], 8));
+        }
+        return line;
+    }
+
+    @Test
+    public void testMatchesRecomputedEdgesAsLinesAreTakenOut() throws IOException {
+        for (String pdf : PDFS) {
+            try (PDDocument document = PDDocument.load(new File(pdf))) {
+                PageIterator pages = new ObjectExtractor(document).extract();
+                while (pages.hasNext()) {
+                    Page page = pages.next();
+                    String message = pdf + " page " + page.getPageNumber();
+                    TextEdgeIndex index = new TextEdgeIndex(page.getTextLines());
+                    assertSameAsRecomputed(message, index);
+
+                    // bands across the page, out of order, then the left half, then what's left
+                    float top = page.getTop(), left = page.getLeft();
+                    float width = (float) page.getWidth(), height = (float) page.getHeight();
+                    float band = height / 5;
+                    for (int i : new int[]{1, 3, 2}) {
+                        index.removeLinesContainedIn(new Rectangle(top + i * band, left, width, band));
+                        assertSameAsRecomputed(message + " without band " + i, index);
+                    }
+                    index.removeLinesContainedIn(new Rectangle(top, left, width / 2, height));
+                    assertSameAsRecomputed(message + " without the left half", index);
+
+                    // taking the same lines out again changes nothing
+                    index.removeLinesContainedIn(new Rectangle(top + band, left, width, band));
+                    assertSameAsRecomputed(message + " without band 1 again", index);
+
+                    index.removeLinesContainedIn(page);
+                    assertTrue(message, index.getLines().isEmpty());
+                    assertSameAsRecomputed(message + " without any line", index);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMidEdgesAreOnlyInterruptedByChunksWhoseMiddleIsFarFromThem() {
+        List<Line> lines = new ArrayList<>();
+        for (int i = 0; i < 13; i++) {
+            float top = 10 + 10 * i;
+            if (i == 4) {
+                // its middle is 2 away from 110, so it doesn't interrupt the mid edge there
+                lines.add(line(top, 99, 125));
+            } else if (i == 8) {
+                // 3 away, so it does
+                lines.add(line(top, 100, 126));
+            } else {
+                lines.add(line(top, 100, 120));
+            }
+        }
+        TextEdgeIndex index = new TextEdgeIndex(lines);
+
+        assertEquals(
+                Arrays.asList(
+                        describe(110, 10, 88, 7),
+                        describe(110, 100, 138, 4)),
+                indexedEdges(index, TextEdge.MID));
+        assertSameAsRecomputed("all lines", index);
+
+        // without the line that interrupted it, the mid edge goes all the way down
+        index.removeLinesContainedIn(new Rectangle(85, 0, 200, 30));
+        assertEquals(11, index.getLines().size());
+        assertEquals(Collections.singletonList(describe(110, 10, 138, 10)), indexedEdges(index, TextEdge.MID));
+        assertSameAsRecomputed("without lines 8 and 9", index);
+    }
+
+}